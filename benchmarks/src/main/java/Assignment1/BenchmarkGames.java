@@ -0,0 +1,45 @@
+package Assignment1;
+
+import java.util.Map;
+
+/**
+ * Reproducible game states for the benchmarks. Every state is produced by
+ * playing a standard game from a fixed seed, so all runs (and all branches
+ * being compared) measure exactly the same boards and hands.
+ */
+final class BenchmarkGames {
+
+    /** Seed of the single-state benchmarks. */
+    static final long SEED = 2026L;
+
+    /** Rounds played to reach a typical mid-game board (roads and a few cities placed). */
+    static final int MID_GAME_ROUNDS = 60;
+
+    private BenchmarkGames() {
+    }
+
+    /** A quiet game played from the given seed until the round limit (or an earlier win). */
+    static GamePlay playedGame(long seed, int rounds) {
+        GamePlay game = GameFactory.createStandardGame(rounds, seed);
+        game.runSimulation();
+        return game;
+    }
+
+    /** Longest Road bookkeeping rebuilt from every road on the game's board. */
+    static LongestRoad longestRoadOf(GamePlay game) {
+        LongestRoad longestRoad = new LongestRoad(game.getBoard(), game.getAgents().size());
+        for (Map.Entry<Edge, Road> e : game.getBoard().getEdgeRoads().entrySet()) {
+            longestRoad.onRoadPlaced(e.getKey().getEdgeNum(), game.getAgents().indexOf(e.getValue().getAgent()));
+        }
+        return longestRoad;
+    }
+
+    /** Gives the agent enough cards for any one build. */
+    static void giveBuildKit(Agent agent) {
+        agent.addResource(Resources.LUMBER, 1);
+        agent.addResource(Resources.BRICK, 1);
+        agent.addResource(Resources.WOOL, 1);
+        agent.addResource(Resources.WHEAT, 2);
+        agent.addResource(Resources.ORE, 3);
+    }
+}
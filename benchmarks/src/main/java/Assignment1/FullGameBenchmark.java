@@ -0,0 +1,41 @@
+package Assignment1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A complete quiet game, from board construction to the last round, for a
+ * few fixed seeds. Most games under the current rules run to the round limit,
+ * so this mostly measures the steady-state turn loop.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class FullGameBenchmark {
+
+    @Param({ "1", "2", "3" })
+    long seed;
+
+    @Param({ "8192" })
+    int maxRounds;
+
+    @Benchmark
+    public GameResult fullGame() {
+        GamePlay game = GameFactory.createStandardGame(maxRounds, seed);
+        game.runSimulation();
+        return GameResult.of(game, seed);
+    }
+}
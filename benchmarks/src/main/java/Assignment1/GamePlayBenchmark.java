@@ -0,0 +1,117 @@
+package Assignment1;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The per-turn steps of GamePlay on a mid-game board (resource production,
+ * one random build and the seven-roll discard), and whole turns on a board
+ * that has stopped changing, which should allocate nothing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GamePlayBenchmark {
+
+    /** Producing rolls in the order they are cycled through (7 produces nothing). */
+    private static final int[] ROLLS = { 6, 8, 5, 9, 4, 10, 3, 11, 2, 12 };
+
+    /** Builds per measured invocation of performRandomBuildAction. */
+    private static final int BUILDS = 8;
+
+    /** Mid-game state shared by the production and discard benchmarks. */
+    @State(Scope.Thread)
+    public static class MidGame {
+        GamePlay game;
+        List<Agent> agents;
+        int rollIndex;
+
+        /** Rebuilt every iteration so the hands cannot grow without bound. */
+        @Setup(Level.Iteration)
+        public void setUp() {
+            game = BenchmarkGames.playedGame(BenchmarkGames.SEED, BenchmarkGames.MID_GAME_ROUNDS);
+            agents = game.getAgents();
+            rollIndex = 0;
+        }
+    }
+
+    /** A fresh copy of the mid-game board for every invocation, since builds consume it. */
+    @State(Scope.Thread)
+    public static class BuildGame {
+        GamePlay game;
+        List<Agent> agents;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            game = BenchmarkGames.playedGame(BenchmarkGames.SEED, BenchmarkGames.MID_GAME_ROUNDS);
+            agents = game.getAgents();
+        }
+    }
+
+    /** The board after a full-length game: few or no builds left, so turns are steady state. */
+    @State(Scope.Thread)
+    public static class LateGame {
+        GamePlay game;
+        List<Agent> agents;
+        int seat;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            game = BenchmarkGames.playedGame(BenchmarkGames.SEED, 8192);
+            agents = game.getAgents();
+        }
+    }
+
+    @Benchmark
+    public void distributeResources(MidGame state) {
+        int i = state.rollIndex;
+        state.game.distributeResources(ROLLS[i]);
+        state.rollIndex = i + 1 == ROLLS.length ? 0 : i + 1;
+    }
+
+    /** Each seat in turn receives a build kit and makes one random build. */
+    @Benchmark
+    @OperationsPerInvocation(BUILDS)
+    public int performRandomBuildAction(BuildGame state) {
+        int built = 0;
+        for (int i = 0; i < BUILDS; i++) {
+            Agent agent = state.agents.get(i % state.agents.size());
+            BenchmarkGames.giveBuildKit(agent);
+            if (state.game.performRandomBuildAction(agent)) built++;
+        }
+        return built;
+    }
+
+    /** Every agent is topped up to at least 16 cards, then a seven is resolved. */
+    @Benchmark
+    public void handleSevenRoll(MidGame state) {
+        for (Agent agent : state.agents) {
+            while (agent.getHandSize() < 16) {
+                BenchmarkGames.giveBuildKit(agent);
+            }
+        }
+        state.game.handleSevenRoll();
+    }
+
+    @Benchmark
+    public void executeTurn(LateGame state) {
+        int seat = state.seat;
+        state.game.executeTurn(state.agents.get(seat));
+        state.seat = seat + 1 == state.agents.size() ? 0 : seat + 1;
+    }
+}
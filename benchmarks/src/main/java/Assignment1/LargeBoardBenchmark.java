@@ -0,0 +1,108 @@
+package Assignment1;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * How the per-turn steps scale with the map: resource production, random
+ * builds and full Longest Road evaluation on generated hex maps from the
+ * standard radius 2 (19 tiles) to radius 24 (1801 tiles), with 4 and 16
+ * agents, each after MID_GAME_ROUNDS rounds of play.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LargeBoardBenchmark {
+
+    /** Producing rolls in the order they are cycled through. */
+    private static final int[] ROLLS = { 6, 8, 5, 9, 4, 10, 3, 11, 2, 12 };
+
+    /** Builds per measured invocation of performRandomBuildAction. */
+    private static final int BUILDS = 8;
+
+    /** A generated map played to mid-game, plus a snapshot of that position. */
+    @State(Scope.Thread)
+    public static class MidGame {
+        @Param({ "2", "8", "24" })
+        int radius;
+
+        @Param({ "4", "16" })
+        int agents;
+
+        GamePlay game;
+        List<Agent> seats;
+        byte[] snapshot;
+        LongestRoad longestRoad;
+        int rollIndex;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            BoardTopology topology = HexMapGenerator.generate(radius, BenchmarkGames.SEED);
+            game = GameFactory.createGame(topology, agents, BenchmarkGames.MID_GAME_ROUNDS, BenchmarkGames.SEED);
+            game.runSimulation();
+            seats = game.getAgents();
+            snapshot = GameSnapshot.save(game);
+            longestRoad = BenchmarkGames.longestRoadOf(game);
+        }
+
+        /** Back to the snapshot every iteration so the hands cannot grow without bound. */
+        @Setup(Level.Iteration)
+        public void restore() {
+            GameSnapshot.restore(game, snapshot);
+            rollIndex = 0;
+        }
+    }
+
+    /** Restores the mid-game position before every invocation, since builds consume it. */
+    @State(Scope.Thread)
+    public static class Unbuilt {
+        @Setup(Level.Invocation)
+        public void restore(MidGame mid) {
+            GameSnapshot.restore(mid.game, mid.snapshot);
+        }
+    }
+
+    @Benchmark
+    public void distributeResources(MidGame state) {
+        int i = state.rollIndex;
+        state.game.distributeResources(ROLLS[i]);
+        state.rollIndex = i + 1 == ROLLS.length ? 0 : i + 1;
+    }
+
+    /** Seats in turn receive a build kit and make one random build. */
+    @Benchmark
+    @OperationsPerInvocation(BUILDS)
+    public int performRandomBuildAction(MidGame state, Unbuilt unbuilt) {
+        int built = 0;
+        for (int i = 0; i < BUILDS; i++) {
+            Agent agent = state.seats.get(i % state.seats.size());
+            BenchmarkGames.giveBuildKit(agent);
+            if (state.game.performRandomBuildAction(agent)) built++;
+        }
+        return built;
+    }
+
+    @Benchmark
+    public void computeLongestRoadLength(MidGame state, Blackhole bh) {
+        for (int seat = 0; seat < state.seats.size(); seat++) {
+            bh.consume(state.longestRoad.computeLongestRoadLength(seat));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package Assignment1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Games per second on one thread: the same short games played one at a time
+ * through GamePlay and together through LockstepEngine.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class LockstepBenchmark {
+
+    private static final int GAMES = 1024;
+
+    @Param({ "30" })
+    int maxRounds;
+
+    @Param({ "256" })
+    int lanes;
+
+    private LockstepEngine engine;
+
+    @Setup
+    public void setup() {
+        engine = LockstepEngine.standard(maxRounds, lanes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public BatchResult gamePlay() {
+        BatchResult result = new BatchResult(GameFactory.AGENT_NAMES.length);
+        for (int i = 0; i < GAMES; i++) {
+            long seed = GameRandom.seedForGame(1L, i);
+            GamePlay game = GameFactory.createStandardGame(maxRounds, seed);
+            game.runSimulation();
+            result.add(GameResult.of(game, seed));
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public BatchResult lockstep() {
+        return engine.run(GAMES, 1L);
+    }
+}
@@ -0,0 +1,49 @@
+package Assignment1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Full (non-incremental) Longest Road evaluation of every seat, on a
+ * mid-game board and on the board at the end of a long game.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LongestRoadBenchmark {
+
+    @Param({ "60", "8192" })
+    int rounds;
+
+    private LongestRoad longestRoad;
+    private int seats;
+
+    @Setup
+    public void setUp() {
+        GamePlay game = BenchmarkGames.playedGame(BenchmarkGames.SEED, rounds);
+        longestRoad = BenchmarkGames.longestRoadOf(game);
+        seats = game.getAgents().size();
+    }
+
+    @Benchmark
+    public void computeLongestRoadLength(Blackhole bh) {
+        for (int seat = 0; seat < seats; seat++) {
+            bh.consume(longestRoad.computeLongestRoadLength(seat));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package Assignment1;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line (for
+ * example a benchmark regex, -f, -wi, -rf json) and always adds the GC
+ * profiler, so every result reports allocation rate and bytes per operation
+ * next to throughput.
+ */
+public class RunBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+            .parent(cmd)
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package Assignment1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saving a mid-game snapshot into a reused buffer and restoring it, against
+ * the undo stack: one turn played and taken back either way.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+
+    private GamePlay game;
+    private byte[] buffer;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkGames.playedGame(BenchmarkGames.SEED, BenchmarkGames.MID_GAME_ROUNDS);
+        buffer = GameSnapshot.save(game);
+        game.setUndoEnabled(true);
+    }
+
+    @Benchmark
+    public byte[] save() {
+        GameSnapshot.save(game, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public GamePlay restore() {
+        GameSnapshot.restore(game, buffer);
+        return game;
+    }
+
+    @Benchmark
+    public GamePlay playTurnAndRestore() {
+        game.playTurn();
+        GameSnapshot.restore(game, buffer);
+        return game;
+    }
+
+    @Benchmark
+    public GamePlay playTurnAndUndo() {
+        int mark = game.mark();
+        game.playTurn();
+        game.undoTo(mark);
+        return game;
+    }
+}
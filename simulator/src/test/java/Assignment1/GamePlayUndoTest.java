@@ -0,0 +1,76 @@
+package Assignment1;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Undo must take a game back to exactly the position of a mark (board, hands,
+ * counters, random state and hash), and recording must not change how a game
+ * plays. Snapshot restore, fork() and the search policies all rely on this.
+ */
+class GamePlayUndoTest {
+
+    private static final int MAX_ROUNDS = 150;
+
+    @Test
+    void undoRestoresSnapshotAndHash() {
+        for (long seed = 1; seed <= 20; seed++) {
+            GamePlay game = GameFactory.createStandardGame(MAX_ROUNDS, seed);
+            game.setUndoEnabled(true);
+            GameRandom choices = new GameRandom(seed * 31);
+            while (!game.isOver()) {
+                byte[] outer = GameSnapshot.save(game);
+                long outerHash = game.getHash();
+                int outerMark = game.mark();
+                playTurns(game, choices.nextInt(6));
+
+                // A nested mark, undone first.
+                byte[] inner = GameSnapshot.save(game);
+                long innerHash = game.getHash();
+                int innerMark = game.mark();
+                playTurns(game, 1 + choices.nextInt(6));
+                game.undoTo(innerMark);
+                assertArrayEquals(inner, GameSnapshot.save(game), "seed " + seed + " inner undo");
+                assertEquals(innerHash, game.getHash(), "seed " + seed + " inner hash");
+
+                playTurns(game, choices.nextInt(4));
+                game.undoTo(outerMark);
+                assertArrayEquals(outer, GameSnapshot.save(game), "seed " + seed + " outer undo");
+                assertEquals(outerHash, game.getHash(), "seed " + seed + " outer hash");
+
+                // Move on past the checked position.
+                playTurns(game, 1 + choices.nextInt(8));
+            }
+        }
+    }
+
+    @Test
+    void recordingDoesNotChangeTheGame() {
+        for (long seed = 1; seed <= 20; seed++) {
+            GamePlay plain = GameFactory.createStandardGame(MAX_ROUNDS, seed);
+            plain.runSimulation();
+            GamePlay recorded = GameFactory.createStandardGame(MAX_ROUNDS, seed);
+            recorded.setUndoEnabled(true);
+            recorded.runSimulation();
+            assertArrayEquals(GameSnapshot.save(plain), GameSnapshot.save(recorded), "seed " + seed);
+            assertEquals(plain.getHash(), recorded.getHash(), "seed " + seed);
+        }
+    }
+
+    @Test
+    void forkStartsFromTheSamePosition() {
+        GamePlay game = GameFactory.createStandardGame(MAX_ROUNDS, 7L);
+        playTurns(game, 60);
+        GamePlay fork = game.fork();
+        assertArrayEquals(GameSnapshot.save(game), GameSnapshot.save(fork));
+        assertEquals(game.getHash(), fork.getHash());
+    }
+
+    private static void playTurns(GamePlay game, int turns) {
+        for (int i = 0; i < turns && !game.isOver(); i++) {
+            game.playTurn();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package Assignment1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/** Generated maps have the tile, node and edge counts of a hexagon of hexagons. */
+class HexMapGeneratorTest {
+
+    @Test
+    void countsMatchClosedForms() {
+        for (int radius = 0; radius <= 24; radius++) {
+            BoardTopology map = HexMapGenerator.generate(radius, radius);
+            int rings = radius + 1;
+            assertEquals(3 * radius * rings + 1, map.getTiles().size(), "tiles at radius " + radius);
+            assertEquals(6 * rings * rings, map.getNodeCount(), "nodes at radius " + radius);
+            assertEquals(3 * rings * (3 * radius + 2), map.getEdgeCount(), "edges at radius " + radius);
+        }
+    }
+
+    @Test
+    void standardDecksAreCopies() {
+        HexMapGenerator.standardNumbers()[0] = 12;
+        HexMapGenerator.standardResources()[0] = Resources.NULL;
+        assertEquals(2, HexMapGenerator.standardNumbers()[0]);
+        assertEquals(Resources.LUMBER, HexMapGenerator.standardResources()[0]);
+    }
+}
@@ -0,0 +1,42 @@
+package Assignment1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/** get(i) must be the i-th smallest member under any mix of adds, removes and clears. */
+class IndexedIntSetTest {
+
+    @Test
+    void ranksMatchASortedSet() {
+        for (int universe : new int[] { 1, 54, 64, 65, 72, 1000, 4097 }) {
+            IndexedIntSet set = new IndexedIntSet(universe);
+            TreeSet<Integer> expected = new TreeSet<>();
+            GameRandom random = new GameRandom(universe);
+            for (int op = 0; op < 20_000; op++) {
+                int value = random.nextInt(universe);
+                if (op % 5000 == 4999) {
+                    set.clear();
+                    expected.clear();
+                } else if (random.nextInt(3) == 0) {
+                    set.remove(value);
+                    expected.remove(value);
+                } else {
+                    set.add(value);
+                    expected.add(value);
+                }
+                assertEquals(expected.size(), set.size());
+                if (op % 97 == 0) {
+                    List<Integer> sorted = new ArrayList<>(expected);
+                    for (int i = 0; i < sorted.size(); i++) {
+                        assertEquals(sorted.get(i).intValue(), set.get(i), "universe " + universe + " rank " + i);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package Assignment1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * LockstepEngine re-implements the rules on flat arrays; every game it plays
+ * must end exactly as the same game played through GamePlay by BatchRunner.
+ */
+class LockstepEngineTest {
+
+    private static final long MASTER_SEED = 2026L;
+
+    @Test
+    void matchesBatchRunnerGameForGame() {
+        // 64 lanes do not divide 300 games, so lanes are refilled and retired mid-batch.
+        assertSameGames(300, 60, 64);
+    }
+
+    @Test
+    void matchesBatchRunnerWithLongerGamesThanLanes() {
+        assertSameGames(30, 150, 7);
+    }
+
+    @Test
+    void matchesBatchRunnerWhenNoRoundsAreAllowed() {
+        assertSameGames(10, 0, 3);
+    }
+
+    private static void assertSameGames(int games, int maxRounds, int lanes) {
+        GameResult[] expected = new GameResult[games];
+        BatchRunner runner = new BatchRunner(seed -> GameFactory.createStandardGame(maxRounds, seed), MASTER_SEED, 2);
+        runner.setResultListener((result, index) -> expected[index] = result);
+        BatchResult expectedSummary = runner.run(games);
+
+        GameResult[] actual = new GameResult[games];
+        LockstepEngine engine = LockstepEngine.standard(maxRounds, lanes);
+        engine.setResultListener((result, index) -> actual[index] = result);
+        BatchResult actualSummary = engine.run(games, MASTER_SEED);
+
+        for (int i = 0; i < games; i++) {
+            assertNotNull(actual[i], "game " + i + " was not played");
+            assertSameResult(expected[i], actual[i], "game " + i);
+        }
+        assertEquals(expectedSummary.toString(), actualSummary.toString());
+    }
+
+    private static void assertSameResult(GameResult expected, GameResult actual, String game) {
+        assertEquals(expected.getSeed(), actual.getSeed(), game + " seed");
+        assertEquals(expected.getWinnerSeat(), actual.getWinnerSeat(), game + " winner");
+        assertEquals(expected.getRounds(), actual.getRounds(), game + " rounds");
+        assertEquals(expected.getTurns(), actual.getTurns(), game + " turns");
+        assertEquals(expected.getLongestRoadSeat(), actual.getLongestRoadSeat(), game + " Longest Road");
+        assertEquals(expected.getSeatCount(), actual.getSeatCount(), game + " seats");
+        for (int seat = 0; seat < expected.getSeatCount(); seat++) {
+            String where = game + " seat " + seat;
+            assertEquals(expected.getVictoryPoints(seat), actual.getVictoryPoints(seat), where + " VPs");
+            assertEquals(expected.getSettlements(seat), actual.getSettlements(seat), where + " settlements");
+            assertEquals(expected.getCities(seat), actual.getCities(seat), where + " cities");
+            assertEquals(expected.getRoads(seat), actual.getRoads(seat), where + " roads");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package Assignment1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/** Two-slot replacement: which entries of a full bucket survive a store. */
+class TranspositionTableTest {
+
+    /** Hashes whose halves are equal all fall into bucket 0. */
+    private static long sameBucket(int k) {
+        return ((long) k << 32) | k;
+    }
+
+    private static void assertStored(TranspositionTable table, long hash, int value) {
+        long entry = table.probe(hash);
+        assertEquals(value, entry == TranspositionTable.NOT_FOUND ? -1 : TranspositionTable.value(entry));
+    }
+
+    @Test
+    void heavyEntrySurvivesLightOnesOfLaterGenerations() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(sameBucket(1), 1, 60000);
+        table.newGeneration();
+        table.store(sameBucket(2), 2, 1);
+        table.newGeneration();
+        table.store(sameBucket(3), 3, 1);
+        assertStored(table, sameBucket(1), 1);
+        assertStored(table, sameBucket(2), -1);
+        assertStored(table, sameBucket(3), 3);
+    }
+
+    @Test
+    void heavierNewcomerTakesTheFirstSlot() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(sameBucket(1), 1, 5);
+        table.store(sameBucket(2), 2, 3);
+        assertStored(table, sameBucket(1), 1);
+        assertStored(table, sameBucket(2), 2);
+        table.store(sameBucket(3), 3, 10);
+        assertStored(table, sameBucket(1), -1);
+        assertStored(table, sameBucket(2), 2);
+        assertStored(table, sameBucket(3), 3);
+    }
+
+    @Test
+    void weightHalvesPerGeneration() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(sameBucket(1), 1, 64);
+        for (int g = 0; g < 5; g++) table.newGeneration();
+        table.store(sameBucket(2), 2, 1);
+        assertStored(table, sameBucket(1), 1);
+        table.newGeneration();
+        table.store(sameBucket(3), 3, 1);
+        assertStored(table, sameBucket(1), -1);
+        assertStored(table, sameBucket(2), 2);
+        assertStored(table, sameBucket(3), 3);
+    }
+
+    @Test
+    void storingAgainReplacesThePositionsEntry() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(sameBucket(1), 1, 100);
+        table.store(sameBucket(2), 2, 1);
+        table.store(sameBucket(2), 4, 200);
+        assertStored(table, sameBucket(1), 1);
+        assertStored(table, sameBucket(2), 4);
+    }
+}
@@ -4,23 +4,39 @@
 // Aleena
 package Assignment1;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
 /************************************************************/
 /**
  * 
  */
 public class Agent {
+	private static final Resources[] RESOURCE_TYPES = Resources.values();
+
 	private int victoryPoints;
-	private List<Resources> hand;
+	/** Number of cards held per resource type, indexed by Resources.ordinal(). */
+	private final int[] hand;
+	private int handSize;
 	private String name;
-
-	public Agent (int victoryPoints, String name){
+	/** Random source used for discards; shared with the rest of the agent's game. */
+	private final GameRandom random;
+	/** How the agent chooses what to build. */
+	private BuildPolicy buildPolicy = BuildPolicies.RANDOM;
+	/** Zobrist key of the agent's seat (0 until it joins a game) and of its current hand. */
+	private long hashKey;
+	private long handHash;
+	/** Per resource type, the base its card keys are derived from. */
+	private final long[] handKeyBase;
+
+	public Agent (int victoryPoints, String name, GameRandom random){
 		this.victoryPoints = victoryPoints;
-		this.hand = new ArrayList<>();
+		this.hand = new int[RESOURCE_TYPES.length];
 		this.name = name;
+		this.random = random;
+		this.handKeyBase = new long[RESOURCE_TYPES.length];
+		setHashKey(0L);
+	}
+
+	public Agent (int victoryPoints, String name){
+		this(victoryPoints, name, new GameRandom());
 	}
 
 	/**
@@ -28,20 +44,35 @@ public class Agent {
 	 * @param resource 
 	 */
 	public void addResource(Resources resource) {
-		hand.add(resource);
+		adjust(resource.ordinal(), 1);
 	}
 
 	/**
-	 * 
+	 * Adds several cards of the same resource (e.g. city production).
+	 * @param resource 
+	 * @param amount number of cards, must not be negative
+	 */
+	public void addResource(Resources resource, int amount) {
+		adjust(resource.ordinal(), amount);
+	}
+
+	/**
+	 * Removes several cards of the same resource (e.g. undoing production).
+	 * @param resource 
+	 * @param amount number of cards, at most the number held
+	 */
+	public void removeResource(Resources resource, int amount) {
+		adjust(resource.ordinal(), -amount);
+	}
+
+	/**
+	 * Removes one card of the resource if the agent holds one.
 	 * @param resource 
 	 */
 	public void removeResource(Resources resource) {
-        for (int i = 0; i < hand.size(); i++) {
-            if (hand.get(i) == resource) {  
-                hand.remove(i);
-                break; 
-            }
-        }
+		if (hand[resource.ordinal()] > 0) {
+			adjust(resource.ordinal(), -1);
+		}
     }
 
 	/**
@@ -62,70 +93,138 @@ public class Agent {
 	}
 
 	public int getHandSize() {
-		return hand.size();
+		return handSize;
 	}
 
+	public BuildPolicy getBuildPolicy() {
+		return buildPolicy;
+	}
+
+	/** Changes how the agent chooses among its affordable legal builds (RANDOM by default). */
+	public void setBuildPolicy(BuildPolicy buildPolicy) {
+		this.buildPolicy = buildPolicy;
+	}
+
+	/** Picks a card uniformly at random from the hand (each card, not each type, is equally likely). */
 	public Resources getRandomResourceFromHand() {
-		if (hand.isEmpty()) return null;
-		return hand.get(new Random().nextInt(hand.size()));
+		if (handSize == 0) return null;
+		int card = random.nextInt(handSize);
+		for (int i = 0; i < hand.length; i++) {
+			card -= hand[i];
+			if (card < 0) return RESOURCE_TYPES[i];
+		}
+		return null; // unreachable: counts always sum to handSize
+	}
+
+	/** Number of resource types a hand tracks (one count per Resources constant). */
+	static int handTypes() {
+		return RESOURCE_TYPES.length;
+	}
+
+	/** Cards held of the resource with this ordinal. */
+	int getHandCount(int ordinal) {
+		return hand[ordinal];
+	}
+
+	/** Overwrites the count of one resource (used when restoring a snapshot). */
+	void setHandCount(int ordinal, int count) {
+		adjust(ordinal, count - hand[ordinal]);
+	}
+
+	/** Changes one resource count, keeping the hand size and hand hash in step. */
+	private void adjust(int ordinal, int delta) {
+		int old = hand[ordinal];
+		hand[ordinal] = old + delta;
+		handSize += delta;
+		handHash ^= Zobrist.hand(handKeyBase[ordinal], old) ^ Zobrist.hand(handKeyBase[ordinal], old + delta);
+	}
+
+	/** Sets the seat key the agent's hand is hashed with (done by GamePlay for every seat). */
+	void setHashKey(long hashKey) {
+		this.hashKey = hashKey;
+		handHash = 0L;
+		for (int i = 0; i < hand.length; i++) {
+			handKeyBase[i] = Zobrist.handBase(hashKey, i);
+			handHash ^= Zobrist.hand(handKeyBase[i], hand[i]);
+		}
+	}
+
+	long getHashKey() {
+		return hashKey;
+	}
+
+	/** XOR of the Zobrist keys of the cards held. */
+	long getHandHash() {
+		return handHash;
+	}
+
+	/** Overwrites the VP total (used when restoring a snapshot). */
+	void setVictoryPoints(int victoryPoints) {
+		this.victoryPoints = victoryPoints;
 	}
 
 	/** Count how many of a given resource the agent has. */
 	public int countResource(Resources r) {
-		int count = 0;
-		for (Resources card : hand) {
-			if (card == r) count++;
-		}
-		return count;
+		return hand[r.ordinal()];
 	}
 
 	/** Remove one card of the given resource (caller must ensure agent has it). */
 	public void removeOneResource(Resources r) {
-		for (int i = 0; i < hand.size(); i++) {
-			if (hand.get(i) == r) {
-				hand.remove(i);
-				return;
-			}
-		}
+		removeResource(r);
 	}
 
 	/** True if agent can pay for a settlement (1 lumber, 1 brick, 1 wheat, 1 wool). */
 	public boolean canAffordSettlement() {
-		return countResource(Resources.LUMBER) >= 1 && countResource(Resources.BRICK) >= 1
-				&& countResource(Resources.WHEAT) >= 1 && countResource(Resources.WOOL) >= 1;
+		return hand[Resources.LUMBER.ordinal()] >= 1 && hand[Resources.BRICK.ordinal()] >= 1
+				&& hand[Resources.WHEAT.ordinal()] >= 1 && hand[Resources.WOOL.ordinal()] >= 1;
 	}
 
 	/** True if agent can pay for a city (2 wheat, 3 ore). */
 	public boolean canAffordCity() {
-		return countResource(Resources.WHEAT) >= 2 && countResource(Resources.ORE) >= 3;
+		return hand[Resources.WHEAT.ordinal()] >= 2 && hand[Resources.ORE.ordinal()] >= 3;
 	}
 
 	/** True if agent can pay for a road (1 lumber, 1 brick). */
 	public boolean canAffordRoad() {
-		return countResource(Resources.LUMBER) >= 1 && countResource(Resources.BRICK) >= 1;
+		return hand[Resources.LUMBER.ordinal()] >= 1 && hand[Resources.BRICK.ordinal()] >= 1;
 	}
 
-	/** Deduct settlement cost: 1 lumber, 1 brick, 1 wheat, 1 wool. */
+	/** Deduct settlement cost: 1 lumber, 1 brick, 1 wheat, 1 wool (caller must check canAffordSettlement). */
 	public void deductSettlementCost() {
-		removeOneResource(Resources.LUMBER);
-		removeOneResource(Resources.BRICK);
-		removeOneResource(Resources.WHEAT);
-		removeOneResource(Resources.WOOL);
+		adjust(Resources.LUMBER.ordinal(), -1);
+		adjust(Resources.BRICK.ordinal(), -1);
+		adjust(Resources.WHEAT.ordinal(), -1);
+		adjust(Resources.WOOL.ordinal(), -1);
 	}
 
-	/** Deduct city cost: 2 wheat, 3 ore. */
+	/** Deduct city cost: 2 wheat, 3 ore (caller must check canAffordCity). */
 	public void deductCityCost() {
-		removeOneResource(Resources.WHEAT);
-		removeOneResource(Resources.WHEAT);
-		removeOneResource(Resources.ORE);
-		removeOneResource(Resources.ORE);
-		removeOneResource(Resources.ORE);
+		adjust(Resources.WHEAT.ordinal(), -2);
+		adjust(Resources.ORE.ordinal(), -3);
 	}
 
-	/** Deduct road cost: 1 lumber, 1 brick. */
+	/** Deduct road cost: 1 lumber, 1 brick (caller must check canAffordRoad). */
 	public void deductRoadCost() {
-		removeOneResource(Resources.LUMBER);
-		removeOneResource(Resources.BRICK);
+		adjust(Resources.LUMBER.ordinal(), -1);
+		adjust(Resources.BRICK.ordinal(), -1);
+	}
+
+	/** Gives back the settlement cost (used to undo a build). */
+	void refundSettlementCost() {
+		adjust(Resources.LUMBER.ordinal(), 1);
+		adjust(Resources.BRICK.ordinal(), 1);
+		adjust(Resources.WHEAT.ordinal(), 1);
+		adjust(Resources.WOOL.ordinal(), 1);
+	}
+
+	void refundCityCost() {
+		adjust(Resources.WHEAT.ordinal(), 2);
+		adjust(Resources.ORE.ordinal(), 3);
+	}
+
+	void refundRoadCost() {
+		adjust(Resources.LUMBER.ordinal(), 1);
+		adjust(Resources.BRICK.ordinal(), 1);
 	}
 
 }
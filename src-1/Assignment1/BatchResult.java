@@ -0,0 +1,134 @@
+package Assignment1;
+
+/**
+ * Aggregated statistics over many games: wins per seat, final VP
+ * distribution per seat and turns-to-victory. Instances are not thread-safe;
+ * each worker fills its own and the partial results are merged.
+ */
+public class BatchResult {
+
+    /** Final VPs above this value are counted in the last histogram bucket. */
+    public static final int MAX_TRACKED_VP = 20;
+
+    private final int seats;
+    private long games;
+    private long gamesWithoutWinner;
+    private final long[] winsPerSeat;
+    private final long[][] vpHistogram;
+    private long totalTurnsToVictory;
+    private double sumSquaredTurnsToVictory;
+    private int minTurnsToVictory = Integer.MAX_VALUE;
+    private int maxTurnsToVictory = 0;
+
+    public BatchResult(int seats) {
+        this.seats = seats;
+        this.winsPerSeat = new long[seats];
+        this.vpHistogram = new long[seats][MAX_TRACKED_VP + 1];
+    }
+
+    /** Adds one finished game. */
+    public void add(GameResult result) {
+        games++;
+        for (int seat = 0; seat < seats; seat++) {
+            vpHistogram[seat][Math.min(result.getVictoryPoints(seat), MAX_TRACKED_VP)]++;
+        }
+        if (!result.hasWinner()) {
+            gamesWithoutWinner++;
+            return;
+        }
+        winsPerSeat[result.getWinnerSeat()]++;
+        int turns = result.getTurns();
+        totalTurnsToVictory += turns;
+        sumSquaredTurnsToVictory += (double) turns * turns;
+        if (turns < minTurnsToVictory) minTurnsToVictory = turns;
+        if (turns > maxTurnsToVictory) maxTurnsToVictory = turns;
+    }
+
+    /** Folds another partial result into this one. */
+    public void merge(BatchResult other) {
+        games += other.games;
+        gamesWithoutWinner += other.gamesWithoutWinner;
+        for (int seat = 0; seat < seats; seat++) {
+            winsPerSeat[seat] += other.winsPerSeat[seat];
+            for (int vp = 0; vp <= MAX_TRACKED_VP; vp++) {
+                vpHistogram[seat][vp] += other.vpHistogram[seat][vp];
+            }
+        }
+        totalTurnsToVictory += other.totalTurnsToVictory;
+        sumSquaredTurnsToVictory += other.sumSquaredTurnsToVictory;
+        minTurnsToVictory = Math.min(minTurnsToVictory, other.minTurnsToVictory);
+        maxTurnsToVictory = Math.max(maxTurnsToVictory, other.maxTurnsToVictory);
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getGamesWithoutWinner() {
+        return gamesWithoutWinner;
+    }
+
+    public long getWins(int seat) {
+        return winsPerSeat[seat];
+    }
+
+    /** Fraction of all games won by the given seat. */
+    public double getWinRate(int seat) {
+        return games == 0 ? 0.0 : (double) winsPerSeat[seat] / games;
+    }
+
+    /** Number of games in which the seat finished with exactly vp points (last bucket: vp or more). */
+    public long getVictoryPointCount(int seat, int vp) {
+        return vpHistogram[seat][Math.min(vp, MAX_TRACKED_VP)];
+    }
+
+    /** Mean final VPs of a seat over all games. */
+    public double getMeanVictoryPoints(int seat) {
+        if (games == 0) return 0.0;
+        long total = 0;
+        for (int vp = 0; vp <= MAX_TRACKED_VP; vp++) {
+            total += vp * vpHistogram[seat][vp];
+        }
+        return (double) total / games;
+    }
+
+    /** Mean number of turns in games that ended with a winner. */
+    public double getMeanTurnsToVictory() {
+        long won = games - gamesWithoutWinner;
+        return won == 0 ? 0.0 : (double) totalTurnsToVictory / won;
+    }
+
+    /** Sample standard deviation of turns in games that ended with a winner. */
+    public double getStdDevTurnsToVictory() {
+        long won = games - gamesWithoutWinner;
+        if (won < 2) return 0.0;
+        double mean = (double) totalTurnsToVictory / won;
+        double variance = (sumSquaredTurnsToVictory - won * mean * mean) / (won - 1);
+        return Math.sqrt(Math.max(0.0, variance));
+    }
+
+    public int getMinTurnsToVictory() {
+        return games == gamesWithoutWinner ? 0 : minTurnsToVictory;
+    }
+
+    public int getMaxTurnsToVictory() {
+        return maxTurnsToVictory;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Games: ").append(games).append(" (no winner: ").append(gamesWithoutWinner).append(")\n");
+        for (int seat = 0; seat < seats; seat++) {
+            sb.append(String.format("  Seat %d: %d wins (%.2f%%), mean VPs %.2f%n",
+                    seat, winsPerSeat[seat], 100.0 * getWinRate(seat), getMeanVictoryPoints(seat)));
+        }
+        sb.append(String.format("  Turns to victory: mean %.1f, sd %.1f, min %d, max %d",
+                getMeanTurnsToVictory(), getStdDevTurnsToVictory(), getMinTurnsToVictory(), getMaxTurnsToVictory()));
+        return sb.toString();
+    }
+}
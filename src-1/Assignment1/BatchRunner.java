@@ -0,0 +1,199 @@
+package Assignment1;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Runs many fully isolated games in parallel and aggregates their results.
+ * The game range is split recursively on a ForkJoinPool so idle workers steal
+ * the remaining games of busy ones; a single very long game therefore never
+ * holds back the rest of its range.
+ *
+ * Game i is created from seed GameRandom.seedForGame(masterSeed, i), so a
+ * batch is exactly reproducible regardless of thread count or scheduling, and
+ * any single game can be rerun from the seed in its GameResult.
+ */
+public class BatchRunner {
+
+    /** Ranges at or below this size are played sequentially by one worker. */
+    private static final int LEAF_GAMES = 4;
+
+    /** Creates game i of a batch from its index and seed. */
+    @FunctionalInterface
+    public interface IndexedGameFactory {
+        GamePlay create(int index, long seed);
+    }
+
+    private final IndexedGameFactory gameFactory;
+    private final long masterSeed;
+    private final int parallelism;
+    /** Shared by every game of the batch when set. */
+    private EngineMetrics metrics;
+    /** Receives a trace of every game when set. */
+    private TraceWriter traces;
+    /** Told about every game as soon as it finishes, when set. */
+    private ObjIntConsumer<GameResult> resultListener;
+    /** Set once the batch should stop starting new games. */
+    private volatile boolean cancelled;
+
+    /**
+     * @param gameFactory	Creates a fresh game from a seed; must not share state between games.
+     * @param masterSeed	Seed from which every game's seed is derived.
+     * @param parallelism	Number of worker threads.
+     */
+    public BatchRunner(LongFunction<GamePlay> gameFactory, long masterSeed, int parallelism) {
+        this((index, seed) -> gameFactory.apply(seed), masterSeed, parallelism);
+    }
+
+    /**
+     * For batches whose games differ by position as well as by seed, e.g. a
+     * tournament that rotates the seating from game to game.
+     * @param gameFactory	Creates a fresh game from its index and seed; must not share state between games.
+     */
+    public BatchRunner(IndexedGameFactory gameFactory, long masterSeed, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be at least 1");
+        this.gameFactory = gameFactory;
+        this.masterSeed = masterSeed;
+        this.parallelism = parallelism;
+    }
+
+    /** Standard four-agent games on all available cores. */
+    public BatchRunner(int maxRounds, long masterSeed) {
+        this(seed -> GameFactory.createStandardGame(maxRounds, seed), masterSeed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Makes every game played from now on report to the given metrics (null for none). */
+    public void setMetrics(EngineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Records every game played from now on into the given trace file (null
+     * for none), labelled with its seed. Recording replaces any listener the
+     * factory installed.
+     */
+    public void setTraceWriter(TraceWriter traces) {
+        this.traces = traces;
+    }
+
+    /**
+     * Streams results out while the batch runs: the listener receives each
+     * game's result and index on the worker thread that played it, in
+     * completion order, so it must be thread-safe. Null for none.
+     */
+    public void setResultListener(ObjIntConsumer<GameResult> resultListener) {
+        this.resultListener = resultListener;
+    }
+
+    /**
+     * Stops the batch early: games already being played finish, the rest are
+     * skipped and left out of the result. Safe to call from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Plays the given number of games and returns the merged statistics.
+     * @param games	Number of games to play.
+     */
+    public BatchResult run(int games) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return run(games, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays the games on an existing pool, e.g. one shared by several batches
+     * running at the same time; the pool is left running.
+     */
+    public BatchResult run(int games, ForkJoinPool pool) {
+        return run(0, games, pool);
+    }
+
+    /**
+     * Starts the games on the pool without waiting for them, e.g. so the
+     * calling thread can stream results while they are played.
+     */
+    public ForkJoinTask<BatchResult> submit(int games, ForkJoinPool pool) {
+        if (games < 1) throw new IllegalArgumentException("games must be at least 1");
+        return pool.submit(new GameRangeTask(0, games, true));
+    }
+
+    /**
+     * Plays games from to to - 1 of the batch, e.g. the next block of a study
+     * that decides after each block whether to go on.
+     */
+    public BatchResult run(int from, int to, ForkJoinPool pool) {
+        if (from < 0 || to <= from) throw new IllegalArgumentException("games must be at least 1");
+        return pool.invoke(new GameRangeTask(from, to, true));
+    }
+
+    /** Plays one game of the batch to completion; games are quiet unless the factory installs a listener. */
+    GameResult playGame(int index) {
+        long seed = GameRandom.seedForGame(masterSeed, index);
+        GamePlay game = gameFactory.create(index, seed);
+        game.setMetrics(metrics);
+        if (traces != null) new TraceRecorder(game, seed, traces);
+        game.runSimulation();
+        GameResult result = GameResult.of(game, seed);
+        if (resultListener != null) resultListener.accept(result, index);
+        return result;
+    }
+
+    /**
+     * Plays a range of games. The seat count is taken from the first game a
+     * range plays, so a range that played nothing (cancelled) returns null;
+     * only the whole batch turns that into an empty result.
+     */
+    private class GameRangeTask extends RecursiveTask<BatchResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final boolean whole;
+
+        GameRangeTask(int from, int to, boolean whole) {
+            this.from = from;
+            this.to = to;
+            this.whole = whole;
+        }
+
+        @Override
+        protected BatchResult compute() {
+            BatchResult result = play();
+            return result == null && whole ? new BatchResult(0) : result;
+        }
+
+        private BatchResult play() {
+            if (to - from <= LEAF_GAMES) {
+                BatchResult result = null;
+                for (int i = from; i < to && !cancelled; i++) {
+                    GameResult game = playGame(i);
+                    if (result == null) result = new BatchResult(game.getSeatCount());
+                    result.add(game);
+                }
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            GameRangeTask left = new GameRangeTask(from, mid, false);
+            GameRangeTask right = new GameRangeTask(mid, to, false);
+            left.fork();
+            BatchResult result = right.compute();
+            BatchResult other = left.join();
+            if (result == null) return other;
+            if (other != null) result.merge(other);
+            return result;
+        }
+    }
+}
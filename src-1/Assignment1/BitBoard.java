@@ -0,0 +1,208 @@
+package Assignment1;
+
+import java.util.Arrays;
+
+/**
+ * Node and edge occupancy as bit sets: one bit per node or edge ID, packed
+ * into longs, for every building and road and separately per seat. The
+ * standard board fits in one word of nodes and two words of edges; larger
+ * boards simply use more words.
+ *
+ * The neighbourhoods the build rules look at (a node and its neighbours, the
+ * two ends of an edge, the edges sharing an end with an edge) are sparse
+ * masks precomputed once per map by {@link BoardTopology}: only the words they
+ * touch are stored, so a rule check is a few AND operations however large the
+ * board is. Copying the whole occupancy state is a handful of array copies.
+ */
+public class BitBoard {
+
+    private final int seats;
+    private final int nodeWords;
+    private final int edgeWords;
+
+    /** The node itself and every neighbour, as node masks (Distance Rule). */
+    private final SparseMasks closedNeighborhood;
+    /** Both ends of an edge, as node masks. */
+    private final SparseMasks edgeEnds;
+    /** Every other edge sharing an end with the edge, as edge masks. */
+    private final SparseMasks touchingEdges;
+
+    private final long[] buildings;
+    private final long[][] settlements;
+    private final long[][] cities;
+    private final long[] roads;
+    private final long[][] seatRoads;
+
+    /**
+     * Empty occupancy for the board's topology.
+     * @param board	Source of the node and edge adjacency.
+     * @param seats	Number of agents.
+     */
+    public BitBoard(Board board, int seats) {
+        BoardTopology topology = board.getTopology();
+        this.seats = seats;
+        this.nodeWords = words(topology.getNodeCount());
+        this.edgeWords = words(topology.getEdgeCount());
+        this.closedNeighborhood = topology.getClosedNeighborhoods();
+        this.edgeEnds = topology.getEdgeEnds();
+        this.touchingEdges = topology.getTouchingEdges();
+
+        this.buildings = new long[nodeWords];
+        this.settlements = new long[seats][nodeWords];
+        this.cities = new long[seats][nodeWords];
+        this.roads = new long[edgeWords];
+        this.seatRoads = new long[seats][edgeWords];
+    }
+
+    /** Copy with the same (shared, immutable) topology and its own occupancy. */
+    private BitBoard(BitBoard other) {
+        this.seats = other.seats;
+        this.nodeWords = other.nodeWords;
+        this.edgeWords = other.edgeWords;
+        this.closedNeighborhood = other.closedNeighborhood;
+        this.edgeEnds = other.edgeEnds;
+        this.touchingEdges = other.touchingEdges;
+        this.buildings = new long[nodeWords];
+        this.settlements = new long[seats][nodeWords];
+        this.cities = new long[seats][nodeWords];
+        this.roads = new long[edgeWords];
+        this.seatRoads = new long[seats][edgeWords];
+        copyFrom(other);
+    }
+
+    /** Independent copy of the occupancy state. */
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    /** Overwrites this state with another one for the same board and seats, without allocating. */
+    public void copyFrom(BitBoard other) {
+        System.arraycopy(other.buildings, 0, buildings, 0, nodeWords);
+        System.arraycopy(other.roads, 0, roads, 0, edgeWords);
+        for (int seat = 0; seat < seats; seat++) {
+            System.arraycopy(other.settlements[seat], 0, settlements[seat], 0, nodeWords);
+            System.arraycopy(other.cities[seat], 0, cities[seat], 0, nodeWords);
+            System.arraycopy(other.seatRoads[seat], 0, seatRoads[seat], 0, edgeWords);
+        }
+    }
+
+    /** Empties the board. */
+    public void clear() {
+        Arrays.fill(buildings, 0L);
+        Arrays.fill(roads, 0L);
+        for (int seat = 0; seat < seats; seat++) {
+            Arrays.fill(settlements[seat], 0L);
+            Arrays.fill(cities[seat], 0L);
+            Arrays.fill(seatRoads[seat], 0L);
+        }
+    }
+
+    public void placeSettlement(int seat, int nodeNum) {
+        set(buildings, nodeNum);
+        set(settlements[seat], nodeNum);
+    }
+
+    /** Upgrades the seat's settlement on the node. */
+    public void placeCity(int seat, int nodeNum) {
+        set(buildings, nodeNum);
+        clear(settlements[seat], nodeNum);
+        set(cities[seat], nodeNum);
+    }
+
+    public void placeRoad(int seat, int edgeNum) {
+        set(roads, edgeNum);
+        set(seatRoads[seat], edgeNum);
+    }
+
+    /** Removes the seat's settlement from the node. */
+    public void removeSettlement(int seat, int nodeNum) {
+        clear(buildings, nodeNum);
+        clear(settlements[seat], nodeNum);
+    }
+
+    /** Turns the seat's city on the node back into a settlement. */
+    public void downgradeCity(int seat, int nodeNum) {
+        clear(cities[seat], nodeNum);
+        set(settlements[seat], nodeNum);
+    }
+
+    public void removeRoad(int seat, int edgeNum) {
+        clear(roads, edgeNum);
+        clear(seatRoads[seat], edgeNum);
+    }
+
+    public boolean hasBuilding(int nodeNum) {
+        return test(buildings, nodeNum);
+    }
+
+    public boolean hasSettlement(int seat, int nodeNum) {
+        return test(settlements[seat], nodeNum);
+    }
+
+    public boolean hasCity(int seat, int nodeNum) {
+        return test(cities[seat], nodeNum);
+    }
+
+    public boolean hasRoad(int edgeNum) {
+        return test(roads, edgeNum);
+    }
+
+    /** Distance Rule: the node and all its neighbours are empty. */
+    public boolean isSettlementSpot(int nodeNum) {
+        return !closedNeighborhood.intersects(nodeNum, buildings);
+    }
+
+    /** True if an end of the edge holds one of the seat's buildings or roads (R1.6). */
+    public boolean touchesSeat(int seat, int edgeNum) {
+        return edgeEnds.intersects(edgeNum, settlements[seat])
+            || edgeEnds.intersects(edgeNum, cities[seat])
+            || touchingEdges.intersects(edgeNum, seatRoads[seat]);
+    }
+
+    public int getSettlementCount(int seat) {
+        return popCount(settlements[seat]);
+    }
+
+    public int getCityCount(int seat) {
+        return popCount(cities[seat]);
+    }
+
+    public int getRoadCount(int seat) {
+        return popCount(seatRoads[seat]);
+    }
+
+    /** Raw masks for bulk encoders such as GameSnapshot (do not modify). */
+    long[] getSettlementMask(int seat) {
+        return settlements[seat];
+    }
+
+    long[] getCityMask(int seat) {
+        return cities[seat];
+    }
+
+    long[] getRoadMask(int seat) {
+        return seatRoads[seat];
+    }
+
+    private static int words(int bits) {
+        return Math.max(1, (bits + 63) >>> 6);
+    }
+
+    private static void set(long[] mask, int bit) {
+        mask[bit >>> 6] |= 1L << bit;
+    }
+
+    private static void clear(long[] mask, int bit) {
+        mask[bit >>> 6] &= ~(1L << bit);
+    }
+
+    private static boolean test(long[] mask, int bit) {
+        return (mask[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static int popCount(long[] mask) {
+        int count = 0;
+        for (long word : mask) count += Long.bitCount(word);
+        return count;
+    }
+}
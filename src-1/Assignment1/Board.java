@@ -9,7 +9,11 @@ package Assignment1;
 import java.util.*;
 
 /**
- * 
+ * Per-game state of a map: which building stands on each node, which road on
+ * each edge, and the production table derived from them. The shape of the
+ * map (nodes, edges, tiles, adjacency) lives in a shared, read-only
+ * {@link BoardTopology}, so creating a Board for a new game only allocates
+ * these few arrays.
  */
 public class Board {
 	/**
@@ -17,24 +21,58 @@ public class Board {
 	 * @param Tile 
 	 * @return 
 	 */
-	private List<Edge> edges;
-	private List<Node> nodes;
-	private List<Tile> tiles;
+	private final BoardTopology topology;
 
-	private Map<Node, Building> nodeBuildings;
-	private Map<Edge, Road> edgeRoads;
+	/** Building on each node and road on each edge, indexed by ID (null when empty). */
+	private final Building[] nodeBuildings;
+	private final Road[] edgeRoads;
+	private int roadCount;
+	/** Zobrist hash of every building and road, keyed by their owners' seat keys. */
+	private long hash;
 
+	/** Highest dice total that can appear on a tile. */
+	private static final int MAX_ROLL = BoardTopology.MAX_ROLL;
+
+	/**
+	 * Production table indexed by roll value: slot i of roll r says that
+	 * productionOwner[r][i] receives productionAmount[r][i] cards of
+	 * productionResource[r][i]. Slots are added when a building is placed and
+	 * arrays are sized up front, so a roll never allocates.
+	 */
+	private final Agent[][] productionOwner = new Agent[MAX_ROLL + 1][];
+	private final Resources[][] productionResource = new Resources[MAX_ROLL + 1][];
+	private final int[][] productionAmount = new int[MAX_ROLL + 1][];
+	private final int[][] productionNode = new int[MAX_ROLL + 1][];
+	private final Tile[][] productionTile = new Tile[MAX_ROLL + 1][];
+	private final int[] productionCount = new int[MAX_ROLL + 1];
+
+	/** Empty board on a shared topology. */
+	public Board(BoardTopology topology) {
+		this.topology = topology;
+		this.nodeBuildings = new Building[topology.getNodeCount()];
+		this.edgeRoads = new Road[topology.getEdgeCount()];
+		// One slot per (tile, adjacent node) pair is the most a roll can ever produce.
+		for (int roll = 0; roll <= MAX_ROLL; roll++) {
+			int capacity = topology.getProductionCapacity(roll);
+			productionOwner[roll] = new Agent[capacity];
+			productionResource[roll] = new Resources[capacity];
+			productionAmount[roll] = new int[capacity];
+			productionNode[roll] = new int[capacity];
+			productionTile[roll] = new Tile[capacity];
+		}
+	}
+
+	/** Empty board with a topology of its own. */
 	public Board(List<Tile> tiles, List<Edge> edges, List<Node> nodes) {
-		this.tiles = tiles;
-		this.edges = edges;
-		this.nodes = nodes;
-		this.nodeBuildings = new HashMap<Node, Building>();
-		this.edgeRoads = new HashMap<Edge, Road>();
+		this(new BoardTopology(tiles, edges, nodes));
+	}
 
+	public BoardTopology getTopology() {
+		return topology;
 	}
 
 	public Tile getTile(int index) {
-		return tiles.get(index);
+		return topology.getTiles().get(index);
 	}
 
 	/**
@@ -43,7 +81,7 @@ public class Board {
 	 * @return 
 	 */
 	public Edge getEdge(int index) {
-		return edges.get(index);
+		return topology.getEdges().get(index);
 	}
 
 	/**
@@ -51,44 +89,214 @@ public class Board {
 	 * @param index
 	 */
 	public Node getNode(int index) {
-		return nodes.get(index);
+		return topology.getNodes().get(index);
+	}
+
+	/** IDs of the edges touching a node (do not modify). */
+	public int[] getNodeEdgeIds(int nodeNum) {
+		return topology.getNodeEdgeIds(nodeNum);
+	}
+
+	/** IDs of the distinct nodes one edge away from a node (do not modify). */
+	public int[] getNodeNeighborIds(int nodeNum) {
+		return topology.getNodeNeighborIds(nodeNum);
+	}
+
+	/** IDs of the two end nodes of an edge (do not modify). */
+	public int[] getEdgeNodeIds(int edgeNum) {
+		return topology.getEdgeNodeIds(edgeNum);
 	}
 
 	public Building getBuildingAtNode(Node node) {
-    	return nodeBuildings.get(node);
+    	return nodeBuildings[node.getNodeNum()];
+	}
+
+	/** Building on the node with this ID, or null. */
+	public Building getBuildingAtNode(int nodeNum) {
+		return nodeBuildings[nodeNum];
 	}
 
 	public Road getRoadAtEdge(Edge edge) {
-    	return edgeRoads.get(edge);
+    	return edgeRoads[edge.getEdgeNum()];
+	}
+
+	/** Road on the edge with this ID, or null. */
+	public Road getRoadAtEdge(int edgeNum) {
+		return edgeRoads[edgeNum];
 	}
 
 	public void placeSettlement(Node node, Building settlement) {
-    	nodeBuildings.put(node, settlement);
+    	Building previous = nodeBuildings[node.getNodeNum()];
+    	if (previous != null) hash ^= buildingKey(previous, node.getNodeNum());
+    	nodeBuildings[node.getNodeNum()] = settlement;
+    	hash ^= Zobrist.settlement(settlement.getAgent().getHashKey(), node.getNodeNum());
+    	updateProduction(node, settlement);
 	}
 
 	public void placeCity(Node node, Building city, Agent agent) {
-		nodeBuildings.put(node, city);
+		Building previous = nodeBuildings[node.getNodeNum()];
+		if (previous != null) hash ^= buildingKey(previous, node.getNodeNum());
+		nodeBuildings[node.getNodeNum()] = city;
+		hash ^= Zobrist.city(city.getAgent().getHashKey(), node.getNodeNum());
+		updateProduction(node, city);
+	}
+
+	/** Adds or rewrites the production slots of every producing tile around the node. */
+	private void updateProduction(Node node, Building building) {
+		int nodeNum = node.getNodeNum();
+		int amount = (building instanceof City) ? 2 : 1;
+		for (Tile tile : topology.getProducingTiles(nodeNum)) {
+			int roll = tile.getRollValue();
+			int slot = 0;
+			while (slot < productionCount[roll]
+					&& (productionNode[roll][slot] != nodeNum || productionTile[roll][slot] != tile)) {
+				slot++;
+			}
+			if (slot == productionCount[roll]) {
+				productionCount[roll]++;
+				productionNode[roll][slot] = nodeNum;
+				productionTile[roll][slot] = tile;
+				productionResource[roll][slot] = tile.getResource();
+			}
+			productionOwner[roll][slot] = building.getAgent();
+			productionAmount[roll][slot] = amount;
+		}
+	}
+
+	/**
+	 * Takes back the settlement on the node, which must be the most recently
+	 * placed building still standing: its production slots are then the last
+	 * ones of each roll (used to undo a build).
+	 */
+	void removeSettlement(Node node) {
+		int nodeNum = node.getNodeNum();
+		hash ^= buildingKey(nodeBuildings[nodeNum], nodeNum);
+		nodeBuildings[nodeNum] = null;
+		Tile[] tiles = topology.getProducingTiles(nodeNum);
+		for (int i = tiles.length - 1; i >= 0; i--) {
+			int roll = tiles[i].getRollValue();
+			int slot = --productionCount[roll];
+			if (productionNode[roll][slot] != nodeNum || productionTile[roll][slot] != tiles[i]) {
+				throw new IllegalStateException("settlement on node " + nodeNum + " is not the newest building");
+			}
+			productionOwner[roll][slot] = null;
+		}
+	}
+
+	/** Turns the city on the node back into the given settlement (used to undo an upgrade). */
+	void downgradeCity(Node node, Building settlement) {
+		hash ^= buildingKey(nodeBuildings[node.getNodeNum()], node.getNodeNum())
+			^ Zobrist.settlement(settlement.getAgent().getHashKey(), node.getNodeNum());
+		nodeBuildings[node.getNodeNum()] = settlement;
+		updateProduction(node, settlement);
+	}
+
+	/**
+	 * Credits every building on a tile with this roll value: one card for a
+	 * settlement, two for a city. Rolls with no producing tile (7, desert) do nothing.
+	 * @param roll	The dice total.
+	 * @return number of resource cards handed out
+	 */
+	public int produceResources(int roll) {
+		if (roll < 0 || roll > MAX_ROLL) return 0;
+		Agent[] owners = productionOwner[roll];
+		Resources[] resources = productionResource[roll];
+		int[] amounts = productionAmount[roll];
+		int produced = 0;
+		for (int i = 0, n = productionCount[roll]; i < n; i++) {
+			owners[i].addResource(resources[i], amounts[i]);
+			produced += amounts[i];
+		}
+		return produced;
+	}
+
+	/** Takes back exactly the cards produceResources(roll) handed out (used to undo a roll). */
+	void unproduceResources(int roll) {
+		if (roll < 0 || roll > MAX_ROLL) return;
+		Agent[] owners = productionOwner[roll];
+		Resources[] resources = productionResource[roll];
+		int[] amounts = productionAmount[roll];
+		for (int i = 0, n = productionCount[roll]; i < n; i++) {
+			owners[i].removeResource(resources[i], amounts[i]);
+		}
+	}
+
+	/** Removes every building and road, leaving the empty board of a new game. */
+	public void clear() {
+		Arrays.fill(nodeBuildings, null);
+		Arrays.fill(edgeRoads, null);
+		roadCount = 0;
+		hash = 0L;
+		for (int roll = 0; roll <= MAX_ROLL; roll++) {
+			Arrays.fill(productionOwner[roll], null);
+			productionCount[roll] = 0;
+		}
 	}
 
 	/** Place a road on an edge (for R1.6: must be connected to existing road/settlement). */
 	public void placeRoad(Edge edge, Road road) {
-		edgeRoads.put(edge, road);
+		Road previous = edgeRoads[edge.getEdgeNum()];
+		if (previous == null) roadCount++;
+		else hash ^= Zobrist.road(previous.getAgent().getHashKey(), edge.getEdgeNum());
+		edgeRoads[edge.getEdgeNum()] = road;
+		hash ^= Zobrist.road(road.getAgent().getHashKey(), edge.getEdgeNum());
+	}
+
+	/** Takes the road off the edge (used to undo a build). */
+	void removeRoad(Edge edge) {
+		Road road = edgeRoads[edge.getEdgeNum()];
+		if (road == null) return;
+		roadCount--;
+		hash ^= Zobrist.road(road.getAgent().getHashKey(), edge.getEdgeNum());
+		edgeRoads[edge.getEdgeNum()] = null;
+	}
+
+	/**
+	 * Zobrist hash of the buildings and roads, updated with every placement
+	 * and removal; equal boards with the same seat keys hash equally.
+	 */
+	public long getHash() {
+		return hash;
 	}
 
+	/** Recomputes the hash from scratch, e.g. after the owners' seat keys were set. */
+	void rehash() {
+		hash = 0L;
+		for (int n = 0; n < nodeBuildings.length; n++) {
+			if (nodeBuildings[n] != null) hash ^= buildingKey(nodeBuildings[n], n);
+		}
+		for (int e = 0; e < edgeRoads.length; e++) {
+			if (edgeRoads[e] != null) hash ^= Zobrist.road(edgeRoads[e].getAgent().getHashKey(), e);
+		}
+	}
+
+	private static long buildingKey(Building building, int nodeNum) {
+		long seatKey = building.getAgent().getHashKey();
+		return building instanceof City ? Zobrist.city(seatKey, nodeNum) : Zobrist.settlement(seatKey, nodeNum);
+	}
+
+	/**
+	 * All placed roads in edge ID order. Builds a new map on every call, so it
+	 * is meant for setup and reporting, not for the turn loop.
+	 */
 	public Map<Edge, Road> getEdgeRoads() {
-		return edgeRoads;
+		Map<Edge, Road> roads = new LinkedHashMap<>(roadCount * 2);
+		for (int e = 0; e < edgeRoads.length; e++) {
+			if (edgeRoads[e] != null) roads.put(topology.getEdges().get(e), edgeRoads[e]);
+		}
+		return roads;
 	}
 
 	public List<Tile> getTiles() {
-		return tiles;
+		return topology.getTiles();
 	}
 
 	public List<Edge> getEdges() {
-		return edges;
+		return topology.getEdges();
 	}
 
 	public List<Node> getNodes() {
-		return nodes;
+		return topology.getNodes();
 	}
 
 }
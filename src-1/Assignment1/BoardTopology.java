@@ -0,0 +1,195 @@
+package Assignment1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The fixed shape of a map: nodes, edges, tiles and every adjacency the
+ * engine needs, as primitive ID arrays. Nothing here changes during a game,
+ * so one instance is built per map and shared read-only by every Board (and
+ * thread) that plays on it; each Board only adds its own ownership state.
+ *
+ * Node and edge IDs are the positions in the node and edge lists, so all
+ * arrays are indexed by ID.
+ */
+public class BoardTopology {
+
+    /** Highest dice total that can appear on a tile. */
+    public static final int MAX_ROLL = 12;
+
+    private final List<Node> nodes;
+    private final List<Edge> edges;
+    private final List<Tile> tiles;
+
+    /** Adjacency by ID: edges touching each node, distinct neighbours of each node, and both ends of each edge. */
+    private final int[][] nodeEdgeIds;
+    private final int[][] nodeNeighborIds;
+    private final int[][] edgeNodeIds;
+    /** Corner node IDs of each tile. */
+    private final int[][] tileNodeIds;
+
+    /** For each node ID, the producing (non-desert) tiles touching it. */
+    private final Tile[][] nodeTiles;
+    /** Number of (producing tile, corner) pairs per roll value: the most one roll can ever pay out to. */
+    private final int[] productionCapacity = new int[MAX_ROLL + 1];
+
+    private final SparseMasks closedNeighborhoods;
+    private final SparseMasks edgeEnds;
+    private final SparseMasks touchingEdges;
+
+    /**
+     * @param tiles	Tiles in position order.
+     * @param edges	Edges in ID order (edge i must have getEdgeNum() == i).
+     * @param nodes	Nodes in ID order (node i must have getNodeNum() == i).
+     */
+    public BoardTopology(List<Tile> tiles, List<Edge> edges, List<Node> nodes) {
+        this.tiles = Collections.unmodifiableList(new ArrayList<>(tiles));
+        this.edges = Collections.unmodifiableList(new ArrayList<>(edges));
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+
+        this.edgeNodeIds = new int[edges.size()][];
+        int[] degree = new int[nodes.size()];
+        for (Edge edge : edges) {
+            int a = edge.getNodes()[0].getNodeNum();
+            int b = edge.getNodes()[1].getNodeNum();
+            edgeNodeIds[edge.getEdgeNum()] = new int[] { a, b };
+            degree[a]++;
+            degree[b]++;
+        }
+        this.nodeEdgeIds = new int[nodes.size()][];
+        for (int n = 0; n < nodes.size(); n++) {
+            nodeEdgeIds[n] = new int[degree[n]];
+            degree[n] = 0;
+        }
+        for (int e = 0; e < edges.size(); e++) {
+            for (int n : edgeNodeIds[e]) nodeEdgeIds[n][degree[n]++] = e;
+        }
+        this.nodeNeighborIds = new int[nodes.size()][];
+        for (int n = 0; n < nodes.size(); n++) {
+            int[] neighbors = new int[nodeEdgeIds[n].length];
+            int count = 0;
+            for (int e : nodeEdgeIds[n]) {
+                int other = edgeNodeIds[e][0] == n ? edgeNodeIds[e][1] : edgeNodeIds[e][0];
+                boolean seen = false;
+                for (int i = 0; i < count; i++) seen |= neighbors[i] == other;
+                if (!seen) neighbors[count++] = other;
+            }
+            nodeNeighborIds[n] = Arrays.copyOf(neighbors, count);
+        }
+
+        this.tileNodeIds = new int[tiles.size()][];
+        List<List<Tile>> tilesPerNode = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) tilesPerNode.add(new ArrayList<>());
+        for (int t = 0; t < tiles.size(); t++) {
+            Tile tile = tiles.get(t);
+            List<Node> corners = tile.getAdjacentNodes();
+            tileNodeIds[t] = new int[corners.size()];
+            for (int i = 0; i < corners.size(); i++) {
+                tileNodeIds[t][i] = corners.get(i).getNodeNum();
+            }
+            if (!isProducing(tile)) continue;
+            for (Node node : corners) {
+                tilesPerNode.get(node.getNodeNum()).add(tile);
+                productionCapacity[tile.getRollValue()]++;
+            }
+        }
+        this.nodeTiles = new Tile[nodes.size()][];
+        for (int i = 0; i < nodes.size(); i++) {
+            nodeTiles[i] = tilesPerNode.get(i).toArray(new Tile[0]);
+        }
+
+        int[][] closed = new int[nodes.size()][];
+        for (int n = 0; n < nodes.size(); n++) {
+            closed[n] = new int[nodeNeighborIds[n].length + 1];
+            closed[n][0] = n;
+            System.arraycopy(nodeNeighborIds[n], 0, closed[n], 1, nodeNeighborIds[n].length);
+        }
+        int[][] touching = new int[edges.size()][];
+        for (int e = 0; e < edges.size(); e++) {
+            int[] atA = nodeEdgeIds[edgeNodeIds[e][0]];
+            int[] atB = nodeEdgeIds[edgeNodeIds[e][1]];
+            touching[e] = new int[atA.length + atB.length];
+            int count = 0;
+            for (int other : atA) if (other != e) touching[e][count++] = other;
+            for (int other : atB) if (other != e) touching[e][count++] = other;
+            touching[e] = Arrays.copyOf(touching[e], count);
+        }
+        this.closedNeighborhoods = new SparseMasks(closed);
+        this.edgeEnds = new SparseMasks(edgeNodeIds);
+        this.touchingEdges = new SparseMasks(touching);
+    }
+
+    /** True for tiles that pay out on some roll (not the desert). */
+    public static boolean isProducing(Tile tile) {
+        int roll = tile.getRollValue();
+        Resources resource = tile.getResource();
+        return roll >= 2 && roll <= MAX_ROLL && resource != null && resource != Resources.NULL;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public List<Edge> getEdges() {
+        return edges;
+    }
+
+    public List<Tile> getTiles() {
+        return tiles;
+    }
+
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    public int getEdgeCount() {
+        return edges.size();
+    }
+
+    /** IDs of the edges touching a node (do not modify). */
+    public int[] getNodeEdgeIds(int nodeNum) {
+        return nodeEdgeIds[nodeNum];
+    }
+
+    /** IDs of the distinct nodes one edge away from a node (do not modify). */
+    public int[] getNodeNeighborIds(int nodeNum) {
+        return nodeNeighborIds[nodeNum];
+    }
+
+    /** IDs of the two end nodes of an edge (do not modify). */
+    public int[] getEdgeNodeIds(int edgeNum) {
+        return edgeNodeIds[edgeNum];
+    }
+
+    /** IDs of the corner nodes of the tile at this position (do not modify). */
+    public int[] getTileNodeIds(int tileIndex) {
+        return tileNodeIds[tileIndex];
+    }
+
+    /** Producing tiles touching a node (do not modify). */
+    Tile[] getProducingTiles(int nodeNum) {
+        return nodeTiles[nodeNum];
+    }
+
+    /** Most production slots a roll can ever need. */
+    int getProductionCapacity(int roll) {
+        return productionCapacity[roll];
+    }
+
+    /** Each node together with its neighbours. */
+    SparseMasks getClosedNeighborhoods() {
+        return closedNeighborhoods;
+    }
+
+    /** Both ends of each edge. */
+    SparseMasks getEdgeEnds() {
+        return edgeEnds;
+    }
+
+    /** The other edges sharing an end with each edge. */
+    SparseMasks getTouchingEdges() {
+        return touchingEdges;
+    }
+}
@@ -0,0 +1,198 @@
+package Assignment1;
+
+import java.util.List;
+
+/**
+ * Legal build targets for every agent, kept up to date as buildings and roads
+ * are placed so that choosing a build never scans the board:
+ * <ul>
+ * <li>settlement nodes: empty nodes whose neighbours are all empty (Distance
+ * Rule; shared by all agents since the rule does not depend on the owner),</li>
+ * <li>city nodes: the agent's own settlements,</li>
+ * <li>road edges: free edges touching the agent's building or road (R1.6).</li>
+ * </ul>
+ * A placement only changes legality next to it, so each update re-checks the
+ * rules for the handful of nodes and edges around the placement. The rules
+ * themselves are evaluated on a {@link BitBoard} of the occupancy.
+ */
+public class BuildCandidates {
+
+    private final Board board;
+    private final List<Agent> agents;
+    private final IndexedIntSet settlementNodes;
+    private final IndexedIntSet[] cityNodes;
+    private final IndexedIntSet[] roadEdges;
+    private final BitBoard bits;
+
+    /**
+     * Builds the sets for the board's current state (e.g. after starting settlements).
+     * @param board		The game board.
+     * @param agents	Agents in seat order; seat indices refer to this list.
+     */
+    public BuildCandidates(Board board, List<Agent> agents) {
+        this.board = board;
+        this.agents = agents;
+        int nodeCount = board.getNodes().size();
+        int edgeCount = board.getEdges().size();
+        this.settlementNodes = new IndexedIntSet(nodeCount);
+        this.cityNodes = new IndexedIntSet[agents.size()];
+        this.roadEdges = new IndexedIntSet[agents.size()];
+        for (int seat = 0; seat < agents.size(); seat++) {
+            cityNodes[seat] = new IndexedIntSet(nodeCount);
+            roadEdges[seat] = new IndexedIntSet(edgeCount);
+        }
+        this.bits = new BitBoard(board, agents.size());
+        rebuild();
+    }
+
+    /** Recomputes every set from the board, e.g. after the board was restored from a snapshot. */
+    public void rebuild() {
+        int nodeCount = board.getNodes().size();
+        int edgeCount = board.getEdges().size();
+        bits.clear();
+        for (int n = 0; n < nodeCount; n++) {
+            Building building = board.getBuildingAtNode(n);
+            if (building == null) continue;
+            int seat = agents.indexOf(building.getAgent());
+            if (building instanceof City) {
+                bits.placeCity(seat, n);
+            } else {
+                bits.placeSettlement(seat, n);
+            }
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            Road road = board.getRoadAtEdge(e);
+            if (road != null) bits.placeRoad(agents.indexOf(road.getAgent()), e);
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            refreshNode(n);
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            refreshEdge(e);
+        }
+    }
+
+    /** Updates the sets after a settlement was placed on the node. */
+    public void onSettlementPlaced(int nodeNum) {
+        bits.placeSettlement(seatOf(board.getBuildingAtNode(nodeNum)), nodeNum);
+        refreshAroundNode(nodeNum);
+    }
+
+    /** Updates the sets after a settlement on the node was upgraded to a city. */
+    public void onCityPlaced(int nodeNum) {
+        bits.placeCity(seatOf(board.getBuildingAtNode(nodeNum)), nodeNum);
+        refreshNode(nodeNum);
+    }
+
+    /** Updates the sets after a road was placed on the edge. */
+    public void onRoadPlaced(int edgeNum) {
+        bits.placeRoad(seatOf(board.getRoadAtEdge(edgeNum)), edgeNum);
+        refreshAroundEdge(edgeNum);
+    }
+
+    /** Updates the sets after the seat's settlement was taken off the node. */
+    public void onSettlementRemoved(int seat, int nodeNum) {
+        bits.removeSettlement(seat, nodeNum);
+        refreshAroundNode(nodeNum);
+    }
+
+    /** Updates the sets after the seat's city on the node became a settlement again. */
+    public void onCityRemoved(int seat, int nodeNum) {
+        bits.downgradeCity(seat, nodeNum);
+        refreshNode(nodeNum);
+    }
+
+    /** Updates the sets after the seat's road was taken off the edge. */
+    public void onRoadRemoved(int seat, int edgeNum) {
+        bits.removeRoad(seat, edgeNum);
+        refreshAroundEdge(edgeNum);
+    }
+
+    public int getSettlementCount() {
+        return settlementNodes.size();
+    }
+
+    /** Node ID of the index-th legal settlement spot, index in [0, getSettlementCount()). */
+    public int getSettlementNode(int index) {
+        return settlementNodes.get(index);
+    }
+
+    public int getCityCount(int seat) {
+        return cityNodes[seat].size();
+    }
+
+    /** Node ID of the index-th settlement the seat can upgrade, index in [0, getCityCount(seat)). */
+    public int getCityNode(int seat, int index) {
+        return cityNodes[seat].get(index);
+    }
+
+    public int getRoadCount(int seat) {
+        return roadEdges[seat].size();
+    }
+
+    /** Edge ID of the index-th legal road for the seat, index in [0, getRoadCount(seat)). */
+    public int getRoadEdge(int seat, int index) {
+        return roadEdges[seat].get(index);
+    }
+
+    /** True if the node is a legal settlement spot. */
+    public boolean isSettlementNode(int nodeNum) {
+        return settlementNodes.contains(nodeNum);
+    }
+
+    /** True if the node holds a settlement the seat can upgrade. */
+    public boolean isCityNode(int seat, int nodeNum) {
+        return cityNodes[seat].contains(nodeNum);
+    }
+
+    /** True if the seat may build a road on the edge. */
+    public boolean isRoadEdge(int seat, int edgeNum) {
+        return roadEdges[seat].contains(edgeNum);
+    }
+
+    /** Occupancy bit sets behind the rule checks (do not modify). */
+    public BitBoard getBitBoard() {
+        return bits;
+    }
+
+    /** A building on the node changes the settlement spots next to it and the roads touching it. */
+    private void refreshAroundNode(int nodeNum) {
+        refreshNode(nodeNum);
+        for (int neighbor : board.getNodeNeighborIds(nodeNum)) {
+            refreshNode(neighbor);
+        }
+        for (int e : board.getNodeEdgeIds(nodeNum)) {
+            refreshEdge(e);
+        }
+    }
+
+    /** A road on the edge changes that edge and the edges sharing an end with it. */
+    private void refreshAroundEdge(int edgeNum) {
+        refreshEdge(edgeNum);
+        for (int n : board.getEdgeNodeIds(edgeNum)) {
+            for (int e : board.getNodeEdgeIds(n)) {
+                refreshEdge(e);
+            }
+        }
+    }
+
+    /** Re-checks the Distance Rule and the city upgrade rule for one node. */
+    private void refreshNode(int nodeNum) {
+        settlementNodes.set(nodeNum, bits.isSettlementSpot(nodeNum));
+        for (int seat = 0; seat < agents.size(); seat++) {
+            cityNodes[seat].set(nodeNum, bits.hasSettlement(seat, nodeNum));
+        }
+    }
+
+    /** Re-checks for every seat whether a road may go on the edge. */
+    private void refreshEdge(int edgeNum) {
+        boolean free = !bits.hasRoad(edgeNum);
+        for (int seat = 0; seat < agents.size(); seat++) {
+            roadEdges[seat].set(edgeNum, free && bits.touchesSeat(seat, edgeNum));
+        }
+    }
+
+    private int seatOf(Building building) {
+        return agents.indexOf(building.getAgent());
+    }
+}
@@ -0,0 +1,90 @@
+package Assignment1;
+
+/**
+ * The built-in build policies. All of them draw from the game's own random
+ * source, so a game stays reproducible from its seed whatever the seating.
+ */
+public enum BuildPolicies implements BuildPolicy {
+
+    /** Every affordable legal build is equally likely (the original behaviour). */
+    RANDOM {
+        @Override
+        public int chooseBuild(GamePlay game, int seat, int settlements, int cities, int roads) {
+            return game.getRandom().nextInt(settlements + cities + roads);
+        }
+    },
+
+    /** Picks a build type uniformly among the possible ones, then a target of that type. */
+    RANDOM_TYPE {
+        @Override
+        public int chooseBuild(GamePlay game, int seat, int settlements, int cities, int roads) {
+            int types = (settlements > 0 ? 1 : 0) + (cities > 0 ? 1 : 0) + (roads > 0 ? 1 : 0);
+            int type = game.getRandom().nextInt(types);
+            if (settlements > 0 && type-- == 0) return pick(game, 0, settlements);
+            if (cities > 0 && type == 0) return pick(game, settlements, cities);
+            return pick(game, settlements + cities, roads);
+        }
+    },
+
+    /** Cities when possible, then settlements, then roads. */
+    CITY_FIRST {
+        @Override
+        public int chooseBuild(GamePlay game, int seat, int settlements, int cities, int roads) {
+            if (cities > 0) return pick(game, settlements, cities);
+            if (settlements > 0) return pick(game, 0, settlements);
+            return pick(game, settlements + cities, roads);
+        }
+    },
+
+    /** Settlements when possible, then cities, then roads. */
+    SETTLEMENT_FIRST {
+        @Override
+        public int chooseBuild(GamePlay game, int seat, int settlements, int cities, int roads) {
+            if (settlements > 0) return pick(game, 0, settlements);
+            if (cities > 0) return pick(game, settlements, cities);
+            return pick(game, settlements + cities, roads);
+        }
+    },
+
+    /** Roads when possible (to reach new spots and Longest Road), otherwise any building. */
+    ROAD_FIRST {
+        @Override
+        public int chooseBuild(GamePlay game, int seat, int settlements, int cities, int roads) {
+            if (roads > 0) return pick(game, settlements + cities, roads);
+            return pick(game, 0, settlements + cities);
+        }
+    },
+
+    /**
+     * The settlement or city on the node with the most expected production
+     * (sum of the dice weights of its producing tiles), lowest candidate on
+     * ties; a random road only when no building is possible.
+     */
+    BEST_SPOT {
+        @Override
+        public int chooseBuild(GamePlay game, int seat, int settlements, int cities, int roads) {
+            if (settlements + cities == 0) return pick(game, settlements + cities, roads);
+            BuildCandidates candidates = game.getCandidates();
+            BoardTopology topology = game.getBoard().getTopology();
+            int best = 0;
+            int bestPips = -1;
+            for (int i = 0; i < settlements + cities; i++) {
+                int node = i < settlements ? candidates.getSettlementNode(i) : candidates.getCityNode(seat, i - settlements);
+                int pips = 0;
+                for (Tile tile : topology.getProducingTiles(node)) {
+                    pips += 6 - Math.abs(7 - tile.getRollValue());
+                }
+                if (pips > bestPips) {
+                    best = i;
+                    bestPips = pips;
+                }
+            }
+            return best;
+        }
+    };
+
+    /** A uniformly random index in [first, first + count). */
+    private static int pick(GamePlay game, int first, int count) {
+        return first + game.getRandom().nextInt(count);
+    }
+}
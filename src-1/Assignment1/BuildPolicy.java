@@ -0,0 +1,25 @@
+package Assignment1;
+
+/**
+ * How an agent chooses among its affordable legal builds when it has to
+ * build (hand over seven). Policies are compared against each other by
+ * {@link Tournament}.
+ *
+ * The choices are numbered as in {@link GamePlay}: first the settlement
+ * candidates, then the agent's city candidates, then its road candidates, in
+ * the order of the game's {@link BuildCandidates}. A count is 0 when the
+ * agent cannot afford that kind of build.
+ */
+@FunctionalInterface
+public interface BuildPolicy {
+
+    /**
+     * @param game			The game being played (for its board, candidates and random source).
+     * @param seat			Seat of the agent choosing.
+     * @param settlements	Number of settlement choices.
+     * @param cities		Number of city choices.
+     * @param roads			Number of road choices; the three counts add up to at least 1.
+     * @return the index of the chosen build, in [0, settlements + cities + roads)
+     */
+    int chooseBuild(GamePlay game, int seat, int settlements, int cities, int roads);
+}
@@ -12,6 +12,25 @@ public interface Dice {
 	 * @return Generates a random integer value representing a die roll.
 	 */
 	public int roll();
+
+	/**
+	 * Fills rolls[offset .. offset + count) with independent rolls, for
+	 * engines that roll ahead in blocks.
+	 */
+	public default void roll(int[] rolls, int offset, int count) {
+		for (int i = offset, end = offset + count; i < end; i++) {
+			rolls[i] = roll();
+		}
+	}
+
+	/**
+	 * Exact distribution of roll(): weights[v] is the relative frequency of
+	 * the value v (for a fair die, 1 for every face). Null if this die cannot
+	 * describe its distribution, in which case it cannot be collapsed.
+	 */
+	public default long[] getWeights() {
+		return null;
+	}
 }
 
 
@@ -0,0 +1,144 @@
+package Assignment1;
+
+import java.util.Arrays;
+
+/**
+ * Die that rolls any finite integer distribution in constant time, e.g. the
+ * collapsed sum of two six-sided dice, with one random draw per roll.
+ *
+ * Both tables are exact integer constructions, so the rolled distribution is
+ * exactly the given one rather than a floating-point approximation. With
+ * total weight W (after dividing out the common factor):
+ * <ul>
+ * <li>up to DIRECT_LIMIT units, every unit simply stores its value, and a roll
+ * is one draw from [0, W) and one load (36 entries for two six-sided dice);</li>
+ * <li>beyond that, Walker's alias method: each of the n columns holds W units
+ * split between its own value and one alias, and one draw from [0, n * W)
+ * picks a column and a unit in it, hitting each value weight-many times.</li>
+ * </ul>
+ */
+public class DistributionDice implements Dice {
+
+    /** Largest total weight rolled by direct lookup instead of the alias table. */
+    static final int DIRECT_LIMIT = 1 << 12;
+
+    private final GameRandom random;
+    private final long[] weights;
+    /** Value rolled for column 0. */
+    private final int minValue;
+    /** Total weight W (after dividing out the common factor): the units per column. */
+    private final int columnUnits;
+    private final int bound;
+    /** Value of each unit for direct lookup, or null when the alias table is used. */
+    private final int[] direct;
+    /** Units of column i that roll its own value; the rest roll alias[i]. */
+    private final int[] threshold;
+    private final int[] alias;
+
+    /**
+     * @param weights	weights[v] is the relative frequency of value v; at least one must be positive.
+     * @param random	The game's random source.
+     * @throws IllegalArgumentException if the weights are negative, all zero, or too fine-grained
+     *									for one int draw (columns * total weight > Integer.MAX_VALUE)
+     */
+    public DistributionDice(long[] weights, GameRandom random) {
+        int first = 0;
+        while (first < weights.length && weights[first] == 0) first++;
+        int last = weights.length - 1;
+        while (last >= first && weights[last] == 0) last--;
+        if (first > last) throw new IllegalArgumentException("no value has positive weight");
+
+        long divisor = 0;
+        for (int v = first; v <= last; v++) {
+            if (weights[v] < 0) throw new IllegalArgumentException("negative weight for value " + v);
+            divisor = gcd(divisor, weights[v]);
+        }
+        int n = last - first + 1;
+        long total = 0;
+        for (int v = first; v <= last; v++) total += weights[v] / divisor;
+        if (total > Integer.MAX_VALUE / n) throw new IllegalArgumentException("distribution too fine-grained for one draw");
+
+        this.random = random;
+        this.weights = Arrays.copyOf(weights, last + 1);
+        this.minValue = first;
+        this.columnUnits = (int) total;
+        this.bound = n * columnUnits;
+        this.threshold = new int[n];
+        this.alias = new int[n];
+        if (columnUnits <= DIRECT_LIMIT) {
+            this.direct = new int[columnUnits];
+            int unit = 0;
+            for (int v = first; v <= last; v++) {
+                for (long k = weights[v] / divisor; k > 0; k--) direct[unit++] = v;
+            }
+            return;
+        }
+        this.direct = null;
+
+        // Vose's construction on scaled weights (weight * n), so each column holds exactly W units.
+        long[] scaled = new long[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[first + i] / divisor * n;
+            if (scaled[i] < total) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            threshold[s] = (int) scaled[s];
+            alias[s] = l;
+            scaled[l] -= total - scaled[s];
+            if (scaled[l] < total) small[smallCount++] = l;
+            else large[largeCount++] = l;
+        }
+        // Whatever is left is exactly full.
+        while (largeCount > 0) {
+            int l = large[--largeCount];
+            threshold[l] = columnUnits;
+            alias[l] = l;
+        }
+        while (smallCount > 0) {
+            int s = small[--smallCount];
+            threshold[s] = columnUnits;
+            alias[s] = s;
+        }
+    }
+
+    @Override
+    public int roll() {
+        return sample();
+    }
+
+    @Override
+    public void roll(int[] rolls, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            rolls[i] = sample();
+        }
+    }
+
+    @Override
+    public long[] getWeights() {
+        return weights.clone();
+    }
+
+    private int sample() {
+        if (direct != null) return direct[random.nextInt(columnUnits)];
+        int draw = random.nextInt(bound);
+        int column = draw / columnUnits;
+        int unit = draw - column * columnUnits;
+        return minValue + (unit < threshold[column] ? column : alias[column]);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -14,12 +14,19 @@ public class Edge {
 	 */
 	private Node[] nodes;
 
+	/**
+	 * Position of this edge in the board's edge list.
+	 */
+	private int edgeID;
+
 	/**
 	 * 
+	 * @param edgeID
 	 * @param node1
 	 * @param node2
 	 */
-	public Edge(Node node1, Node node2) {
+	public Edge(int edgeID, Node node1, Node node2) {
+		this.edgeID = edgeID;
 		this.nodes = new Node[2];
 		this.nodes[0] = node1;
 		this.nodes[1] = node2;
@@ -32,4 +39,12 @@ public class Edge {
 	public Node[] getNodes() {
 		return nodes;
 	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int getEdgeNum() {
+		return edgeID;
+	}
 }
@@ -0,0 +1,197 @@
+package Assignment1;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and timers of the simulation engine, published as a JMX MBean.
+ * One instance is usually shared by every game of a batch, so all counters
+ * are LongAdders: concurrent games update separate cells and never contend
+ * on a single word. Reads sum the cells and are only as consistent as a
+ * snapshot taken while games are running can be.
+ */
+public class EngineMetrics implements EngineMetricsMBean {
+
+    /** Name the metrics are registered under unless another one is given. */
+    public static final String DEFAULT_NAME = "Assignment1:type=EngineMetrics";
+
+    private static final int MAX_ROLL = 12;
+
+    private final LongAdder gamesCompleted = new LongAdder();
+    private final LongAdder gamesWithWinner = new LongAdder();
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder[] rolls = new LongAdder[MAX_ROLL + 1];
+    private final LongAdder settlementsBuilt = new LongAdder();
+    private final LongAdder citiesBuilt = new LongAdder();
+    private final LongAdder roadsBuilt = new LongAdder();
+    private final LongAdder discards = new LongAdder();
+    private final LongAdder sevenRollDiscards = new LongAdder();
+    private final LongAdder longestRoadRecomputations = new LongAdder();
+    private final LongAdder distributeResourcesNanos = new LongAdder();
+    private final LongAdder buildActionNanos = new LongAdder();
+    private volatile long startNanos = System.nanoTime();
+
+    public EngineMetrics() {
+        for (int i = 0; i < rolls.length; i++) {
+            rolls[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server.
+     * @param name	JMX object name, e.g. {@link #DEFAULT_NAME}.
+     * @throws IllegalStateException if the name is malformed or already taken
+     */
+    public EngineMetrics register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(name));
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register metrics as " + name, e);
+        }
+        return this;
+    }
+
+    /** A turn started with this dice total. */
+    void recordRoll(int roll) {
+        turns.increment();
+        if (roll >= 0 && roll <= MAX_ROLL) rolls[roll].increment();
+    }
+
+    void recordDistributeResources(long nanos) {
+        distributeResourcesNanos.add(nanos);
+    }
+
+    void recordBuildAction(long nanos) {
+        buildActionNanos.add(nanos);
+    }
+
+    void recordSettlement() {
+        settlementsBuilt.increment();
+    }
+
+    void recordCity() {
+        citiesBuilt.increment();
+    }
+
+    void recordRoad() {
+        roadsBuilt.increment();
+    }
+
+    void recordDiscard(boolean sevenRolled) {
+        (sevenRolled ? sevenRollDiscards : discards).increment();
+    }
+
+    void recordLongestRoadRecomputation() {
+        longestRoadRecomputations.increment();
+    }
+
+    void recordGameCompleted(boolean hasWinner) {
+        gamesCompleted.increment();
+        if (hasWinner) gamesWithWinner.increment();
+    }
+
+    @Override
+    public long getGamesCompleted() {
+        return gamesCompleted.sum();
+    }
+
+    @Override
+    public long getGamesWithWinner() {
+        return gamesWithWinner.sum();
+    }
+
+    @Override
+    public long getTurns() {
+        return turns.sum();
+    }
+
+    @Override
+    public double getTurnsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? turns.sum() / seconds : 0;
+    }
+
+    @Override
+    public long[] getRollCounts() {
+        long[] counts = new long[rolls.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = rolls[i].sum();
+        }
+        return counts;
+    }
+
+    @Override
+    public long getSettlementsBuilt() {
+        return settlementsBuilt.sum();
+    }
+
+    @Override
+    public long getCitiesBuilt() {
+        return citiesBuilt.sum();
+    }
+
+    @Override
+    public long getRoadsBuilt() {
+        return roadsBuilt.sum();
+    }
+
+    @Override
+    public long getDiscards() {
+        return discards.sum();
+    }
+
+    @Override
+    public long getSevenRollDiscards() {
+        return sevenRollDiscards.sum();
+    }
+
+    @Override
+    public long getLongestRoadRecomputations() {
+        return longestRoadRecomputations.sum();
+    }
+
+    @Override
+    public long getDistributeResourcesNanos() {
+        return distributeResourcesNanos.sum();
+    }
+
+    @Override
+    public long getBuildActionNanos() {
+        return buildActionNanos.sum();
+    }
+
+    @Override
+    public void reset() {
+        gamesCompleted.reset();
+        gamesWithWinner.reset();
+        turns.reset();
+        for (LongAdder roll : rolls) {
+            roll.reset();
+        }
+        settlementsBuilt.reset();
+        citiesBuilt.reset();
+        roadsBuilt.reset();
+        discards.reset();
+        sevenRollDiscards.reset();
+        longestRoadRecomputations.reset();
+        distributeResourcesNanos.reset();
+        buildActionNanos.reset();
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        long turnCount = getTurns();
+        return String.format("Turns: %d (%.0f/s), settlements %d, cities %d, roads %d, discards %d, seven-roll discards %d,"
+                + " longest road evaluations %d, produce %.1f ns/turn, build %.1f ns/turn",
+            turnCount, getTurnsPerSecond(), getSettlementsBuilt(), getCitiesBuilt(), getRoadsBuilt(), getDiscards(),
+            getSevenRollDiscards(), getLongestRoadRecomputations(),
+            turnCount == 0 ? 0.0 : (double) getDistributeResourcesNanos() / turnCount,
+            turnCount == 0 ? 0.0 : (double) getBuildActionNanos() / turnCount);
+    }
+}
@@ -0,0 +1,44 @@
+package Assignment1;
+
+/**
+ * Management interface of {@link EngineMetrics}, as seen in JConsole or any
+ * other JMX client. All counts are totals since creation or the last reset().
+ */
+public interface EngineMetricsMBean {
+
+    long getGamesCompleted();
+
+    long getGamesWithWinner();
+
+    long getTurns();
+
+    /** Turns per second of wall-clock time since creation or the last reset. */
+    double getTurnsPerSecond();
+
+    /** Number of rolls of each dice total; index is the total (0..12). */
+    long[] getRollCounts();
+
+    long getSettlementsBuilt();
+
+    long getCitiesBuilt();
+
+    long getRoadsBuilt();
+
+    /** Turns in which the active agent had more than 7 cards, could not build and discarded down to 7. */
+    long getDiscards();
+
+    /** Agents that lost half their hand to a seven roll. */
+    long getSevenRollDiscards();
+
+    /** Incremental Longest Road evaluations (one per road built). */
+    long getLongestRoadRecomputations();
+
+    /** Total time spent producing resources, in nanoseconds. */
+    long getDistributeResourcesNanos();
+
+    /** Total time spent choosing and placing builds, in nanoseconds. */
+    long getBuildActionNanos();
+
+    /** Clears every counter and restarts the turns/sec clock. */
+    void reset();
+}
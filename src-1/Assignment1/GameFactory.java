@@ -0,0 +1,142 @@
+package Assignment1;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a ready-to-run game in the standard configuration used by Main:
+ * two six-sided dice, four agents, the fixed 19-tile board, one starting
+ * settlement per agent and a small starting hand. The same setup is
+ * available on any map with any number of agents for scaling studies.
+ */
+public class GameFactory {
+
+    /** Agent names in seat order. */
+    public static final String[] AGENT_NAMES = { "Agent_Alpha", "Agent_Beta", "Agent_Gamma", "Agent_Delta" };
+
+    /** Starting settlement node per seat. Nodes 0, 15, 28, 43 are pairwise non-adjacent (distance rule). */
+    public static final int[] STARTING_NODES = { 0, 15, 28, 43 };
+
+    /**
+     * Creates a fresh, fully independent game. Nothing is shared between the
+     * returned game and any other game, so games may run on different threads.
+     * All randomness (dice, discards, build choices) comes from one generator
+     * seeded with the given seed, so the same seed replays the same game.
+     * @param maxRounds	The limit of rounds to simulate before termination.
+     * @param seed		Seed of the game's random source.
+     * @return a GamePlay controller that has not been run yet
+     */
+    public static GamePlay createStandardGame(int maxRounds, long seed) {
+        return createGame(MapSetup.createBoard(), AGENT_NAMES, STARTING_NODES, maxRounds, seed);
+    }
+
+    /**
+     * Creates a game for any map and number of agents, e.g. a large map from
+     * HexMapGenerator. Agents are named Agent_1, Agent_2, ... and get their
+     * starting settlements spread evenly over the node IDs (each moved forward
+     * to the next spot the distance rule allows); otherwise the game is set up
+     * like the standard one.
+     * @throws IllegalArgumentException if the map has no room for every starting settlement
+     */
+    public static GamePlay createGame(BoardTopology topology, int agentCount, int maxRounds, long seed) {
+        if (agentCount < 1) throw new IllegalArgumentException("at least one agent is needed");
+        // Every agent needs a node of its own; checked before anything is sized by agentCount.
+        if (agentCount > topology.getNodeCount()) throw new IllegalArgumentException("map too small for " + agentCount + " agents");
+        return createGame(new Board(topology), agentNames(agentCount), spreadStartingNodes(topology, agentCount), maxRounds, seed);
+    }
+
+    /**
+     * Creates a game on any map with the given starting settlement per seat
+     * (one agent per entry, named Agent_1, Agent_2, ...).
+     * @throws IllegalArgumentException if a node does not exist or two starting nodes break the distance rule
+     */
+    public static GamePlay createGame(BoardTopology topology, int[] startingNodes, int maxRounds, long seed) {
+        checkStartingNodes(topology, startingNodes);
+        return createGame(new Board(topology), agentNames(startingNodes.length), startingNodes.clone(), maxRounds, seed);
+    }
+
+    /** @throws IllegalArgumentException if there are no seats, a node does not exist or two nodes break the distance rule */
+    static void checkStartingNodes(BoardTopology topology, int[] startingNodes) {
+        if (startingNodes.length < 1) throw new IllegalArgumentException("at least one agent is needed");
+        boolean[] blocked = new boolean[topology.getNodeCount()];
+        for (int node : startingNodes) {
+            if (node < 0 || node >= blocked.length) throw new IllegalArgumentException("no node " + node + " on this map");
+            if (blocked[node]) throw new IllegalArgumentException("starting node " + node + " breaks the distance rule");
+            blocked[node] = true;
+            for (int neighbor : topology.getNodeNeighborIds(node)) {
+                blocked[neighbor] = true;
+            }
+        }
+    }
+
+    private static String[] agentNames(int agentCount) {
+        String[] names = new String[agentCount];
+        for (int i = 0; i < agentCount; i++) {
+            names[i] = "Agent_" + (i + 1);
+        }
+        return names;
+    }
+
+    private static GamePlay createGame(Board board, String[] names, int[] startingNodes, int maxRounds, long seed) {
+        GameRandom random = new GameRandom(seed);
+        Dice gameDice = standardDice(random);
+
+        List<Agent> agents = new ArrayList<>();
+        for (String name : names) {
+            agents.add(new Agent(0, name, random));
+        }
+
+        for (int seat = 0; seat < agents.size(); seat++) {
+            Agent agent = agents.get(seat);
+            Node node = board.getNode(startingNodes[seat]);
+            board.placeSettlement(node, new Settlement(agent, node));
+            agent.addVictoryPoints(1);
+        }
+        // Small starting hand so agents can build once they exceed 7 cards (avoids being stuck with only one resource type)
+        for (Agent a : agents) {
+            a.addResource(Resources.LUMBER);
+            a.addResource(Resources.BRICK);
+            a.addResource(Resources.WHEAT);
+            a.addResource(Resources.WOOL);
+        }
+
+        return new GamePlay(agents, board, gameDice, maxRounds, random);
+    }
+
+    /**
+     * The game's two six-sided dice (Composite Pattern via MultiDice), collapsed
+     * into their exact sum distribution so a turn's roll is a single random draw.
+     */
+    static Dice standardDice(GameRandom random) {
+        MultiDice twoDice = new MultiDice();
+        twoDice.addDice(new RegularDice(6, random));
+        twoDice.addDice(new RegularDice(6, random));
+        return twoDice.collapse(random);
+    }
+
+    /** One node per seat at evenly spaced IDs, each moved forward until no placed node is adjacent. */
+    private static int[] spreadStartingNodes(BoardTopology topology, int agentCount) {
+        int nodeCount = topology.getNodeCount();
+        boolean[] blocked = new boolean[nodeCount];
+        int[] nodes = new int[agentCount];
+        for (int seat = 0; seat < agentCount; seat++) {
+            int node = (int) ((long) seat * nodeCount / agentCount);
+            int tries = 0;
+            while (blocked[node]) {
+                if (++tries == nodeCount) throw new IllegalArgumentException("map too small for " + agentCount + " agents");
+                node = node + 1 == nodeCount ? 0 : node + 1;
+            }
+            nodes[seat] = node;
+            blocked[node] = true;
+            for (int neighbor : topology.getNodeNeighborIds(node)) {
+                blocked[neighbor] = true;
+            }
+        }
+        return nodes;
+    }
+
+    /** Standard game with an unpredictable seed. */
+    public static GamePlay createStandardGame(int maxRounds) {
+        return createStandardGame(maxRounds, new GameRandom().nextLong());
+    }
+}
@@ -0,0 +1,65 @@
+package Assignment1;
+
+import java.util.List;
+
+/**
+ * Receives the events of a running game. Events carry the game objects and
+ * plain numbers only; nothing is formatted unless a listener chooses to, so a
+ * game observed by {@link #QUIET} builds no strings at all.
+ *
+ * Every method has an empty default, so a listener only overrides the events
+ * it is interested in.
+ */
+public interface GameListener {
+
+    /** Listener that ignores every event (used by batch runs). */
+    GameListener QUIET = new GameListener() { };
+
+    /** Called once before the first round, after the starting settlements are placed. */
+    default void onGameStart(List<Agent> agents) { }
+
+    /** The active agent rolled the dice at the start of their turn. */
+    default void onTurnRolled(int round, Agent agent, int roll) { }
+
+    /**
+     * Resources were handed out for a non-seven roll.
+     * @param cards	Total number of cards produced (0 if no building touches a matching tile).
+     */
+    default void onResourcesProduced(int roll, int cards) { }
+
+    default void onSettlementBuilt(Agent agent, Node node) { }
+
+    default void onCityBuilt(Agent agent, Node node) { }
+
+    default void onRoadBuilt(Agent agent, Edge edge) { }
+
+    /**
+     * An agent is about to give up cards; onCardDiscarded follows once per card.
+     * @param cards		Number of cards discarded.
+     * @param sevenRolled	True for the seven-roll halving rule, false when the
+     *						active agent could not build and discarded down to 7.
+     */
+    default void onDiscard(Agent agent, int cards, boolean sevenRolled) { }
+
+    /** One card left the agent's hand during a discard. */
+    default void onCardDiscarded(Agent agent, Resources resource) { }
+
+    /**
+     * The Longest Road card changed hands.
+     * @param previous	Former holder, or null.
+     * @param holder	New holder, or null if no one qualifies any more.
+     */
+    default void onLongestRoadChanged(Agent previous, Agent holder) { }
+
+    /** The active agent's turn is over (after any build or discard). */
+    default void onTurnEnd(int round, Agent agent) { }
+
+    /** Every agent has taken their turn in this round (or the round was cut short by a win). */
+    default void onRoundEnd(int round, List<Agent> agents) { }
+
+    /**
+     * The game has finished.
+     * @param winner	The winning agent, or null if the round limit was reached.
+     */
+    default void onGameOver(Agent winner, int rounds, int turns) { }
+}
@@ -4,12 +4,8 @@
 
 package Assignment1;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
-import java.util.Set;
 
 /**
  * The GamePlay class serves as the central controller for the Catan simulation.
@@ -18,15 +14,27 @@ import java.util.Set;
 */
 public class GamePlay {
 	
+	private static final Resources[] RESOURCE_TYPES = Resources.values();
+
 	private int roundNumber = 0;
     private int turnNumber = 0;
     private final List<Agent> agents;
     private final Board board;
     private final Dice dice;
     private final int maxRounds;
-    private final Random random = new Random();
+    private final GameRandom random;
     /** Agent currently holding Longest Road (2 VPs). Null if no one has 5+ segments. */
     private Agent agentWithLongestRoad = null;
+    /** Cached per-seat road lengths, updated incrementally on each road build. */
+    private final LongestRoad longestRoad;
+    /** Legal settlement, city and road targets per seat, updated on each build. */
+    private final BuildCandidates candidates;
+    /** Receives the game's events; quiet unless a log or metrics listener is installed. */
+    private GameListener listener = GameListener.QUIET;
+    /** Engine counters shared with other games, or null when metrics are off. */
+    private EngineMetrics metrics;
+    /** Every change since undo was enabled, or null when it is off. */
+    private UndoStack undo;
 
 	/**
 	 * Initializes the simulation controller with necessary game components.
@@ -34,284 +42,354 @@ public class GamePlay {
 	 * @param board			The game board contaning tiles, nodes, and edges.
 	 * @param dice			The multi-dice component for rolling.
 	 * @param maxRounds		The limit of rounds to simulate before termination.
+	 * @param random		The game's random source, shared with its dice and agents.
 	*/
-	public GamePlay(List<Agent> agents, Board board, Dice dice, int maxRounds){
+	public GamePlay(List<Agent> agents, Board board, Dice dice, int maxRounds, GameRandom random){
 		this.agents = agents;
 		this.board = board;
 		this.dice = dice;
 		this.maxRounds = maxRounds;
+		this.random = random;
+		for (int seat = 0; seat < agents.size(); seat++) {
+			agents.get(seat).setHashKey(Zobrist.seat(seat));
+		}
+		board.rehash();
+		this.longestRoad = new LongestRoad(board, agents.size());
+		for (Map.Entry<Edge, Road> e : board.getEdgeRoads().entrySet()) {
+			longestRoad.onRoadPlaced(e.getKey().getEdgeNum(), agents.indexOf(e.getValue().getAgent()));
+		}
+		this.candidates = new BuildCandidates(board, agents);
+	}
+
+	/**
+	 * Creates a controller with its own unseeded random source for build choices.
+	 */
+	public GamePlay(List<Agent> agents, Board board, Dice dice, int maxRounds){
+		this(agents, board, dice, maxRounds, new GameRandom());
 	}
 
 	/** 
 	 * Executes the main simulation loop. The process continues until an agent 
 	 * reaches 10 victory points or the maximum round limit is reached.
+	 * A game restored from a snapshot continues from the turn it was saved at.
 	*/
 	public void runSimulation() {
-        System.out.println("Initial VPs: " + agents.get(0).getName() + " " + agents.get(0).getVictoryPoints() + ", "
-            + agents.get(1).getName() + " " + agents.get(1).getVictoryPoints() + ", "
-            + agents.get(2).getName() + " " + agents.get(2).getVictoryPoints() + ", "
-            + agents.get(3).getName() + " " + agents.get(3).getVictoryPoints() + " (settlements placed).");
-        boolean victoryAchieved = false;
-
-        while (roundNumber < maxRounds && !victoryAchieved) {
-            roundNumber++;
-            for (Agent activeAgent : agents) {
-                turnNumber++;
-                executeTurn(activeAgent);
-
-                if (activeAgent.getVictoryPoints() >= 10){
-                    victoryAchieved = true;
-                    break;
-                }
-            }
-            printRoundSummary();
+        if (turnNumber == 0) listener.onGameStart(agents);
+        while (!isOver()) {
+            playTurn();
         }
+        Agent winner = getWinner();
+        if (metrics != null) metrics.recordGameCompleted(winner != null);
+        listener.onGameOver(winner, roundNumber, turnNumber);
+    }
+
+    /**
+     * Plays the next single turn. Seats move in order; the first seat's turn
+     * starts a new round. Must not be called once isOver() is true.
+     */
+    public void playTurn() {
+        Agent activeAgent = beginTurn();
+        executeTurn(activeAgent);
+        endTurn(activeAgent);
+    }
+
+    /** Advances the turn (and, for the first seat, the round) counter; returns the agent to move. */
+    Agent beginTurn() {
+        int seat = turnNumber % agents.size();
+        if (seat == 0) roundNumber++;
+        turnNumber++;
+        if (undo != null) undo.push(UndoStack.TURN, -1, -1, 0);
+        return agents.get(seat);
+    }
+
+    /** Reports the end of the round after the last seat's turn or a winning turn. */
+    void endTurn(Agent activeAgent) {
+        if (turnNumber % agents.size() == 0 || activeAgent.getVictoryPoints() >= 10) {
+            listener.onRoundEnd(roundNumber, agents);
+        }
+    }
+
+    /** True once an agent has 10 VPs or the last allowed round has been completed. */
+    public boolean isOver() {
+        return getWinner() != null || (roundNumber >= maxRounds && turnNumber % agents.size() == 0);
     }
 
 	/**
 	 * Handles the logic for an individual agent's turn, including resource 
 	 * production and mandatory building actions if resources exceed limits.
+	 * Apart from the one Settlement, City or Road object of a successful build
+	 * (at most one per node and edge over a whole game), a turn allocates
+	 * nothing: all bookkeeping lives in arrays sized when the game is created.
 	 * @param agent	The agent currently taking their turn.
 	 */
-	private void executeTurn(Agent agent){
+	void executeTurn(Agent agent){
         int roll = dice.roll();
-        String action = "Rolled " + roll;
+        listener.onTurnRolled(roundNumber, agent, roll);
+        if (metrics != null) metrics.recordRoll(roll);
 
         if (roll != 7) {
-            distributeResources(roll);
+            if (metrics == null) {
+                distributeResources(roll);
+            } else {
+                long start = System.nanoTime();
+                distributeResources(roll);
+                metrics.recordDistributeResources(System.nanoTime() - start);
+            }
         } else {
             handleSevenRoll();
         }
 
         if (agent.getHandSize() > 7) {
-            String buildAction = performRandomBuildAction(agent);
-            if (buildAction != null) {
-                action = buildAction;
+            boolean built;
+            if (metrics == null) {
+                built = performRandomBuildAction(agent);
             } else {
-                discardDownToSeven(agent);
-                action = "Discarded down to 7 (no valid build)";
+                long start = System.nanoTime();
+                built = performRandomBuildAction(agent);
+                metrics.recordBuildAction(System.nanoTime() - start);
             }
+            if (!built) discardDownToSeven(agent);
         }
-        System.out.println("[" + roundNumber + " / " + agent.getName() + "]: " + action + " - " + agent.getVictoryPoints() + " VPs");
+        listener.onTurnEnd(roundNumber, agent);
     }
 
 	/**
-	 * Matches the current dice roll against tile values on the board and distributes 
-	 * resources to agents with adjacent buildings.
+	 * Distributes resources for the current dice roll using the board's
+	 * roll-indexed production table (tiles matching the roll, buildings on
+	 * their corners, city doubling).
 	 * @param roll	The integer value resulting from the dice roll.
 	 */
-	private void distributeResources(int roll){
-        for (int i = 0; i < board.getTiles().size(); i++){ // change back to 19
-            Tile currentTile = board.getTile(i);
-
-            if (currentTile.getRollValue() == roll){
-                Resources producedResource = currentTile.getResource();
-
-                if (producedResource == null || producedResource == Resources.NULL) continue; // desert
-                for (Node adjacentNode : currentTile.getAdjacentNodes()) {
-                    Building building = board.getBuildingAtNode(adjacentNode);
-
-                    if (building != null){
-                        Agent owner = building.getAgent();
-                        int amount = (building instanceof City) ? 2 : 1;
-
-                        for (int j = 0; j < amount; j++){
-                            owner.addResource(producedResource);
-                        }
-                    }
-                }
-            } 
-        } 
+	void distributeResources(int roll){
+        int cards = board.produceResources(roll);
+        if (undo != null) undo.push(UndoStack.ROLL, -1, roll, 0);
+        listener.onResourcesProduced(roll, cards);
     }
 
 	/**
 	 * Tries to build one valid item when hand > 7: settlement, city, or road.
-	 * Deducts resources, adds VPs, and returns a human-readable action string; null if no build.
+	 * The agent's BuildPolicy chooses among the affordable legal builds (by
+	 * default every one is equally likely); the legal targets come from the
+	 * incrementally maintained candidate sets, so no board scan is needed.
+	 * Deducts resources, adds VPs and reports the build to the listener.
+	 * @return true if something was built, false if no affordable legal build exists
 	 */
-	private String performRandomBuildAction(Agent agent){
-        List<BuildOption> options = new ArrayList<>();
-
-        if (agent.canAffordSettlement()) {
-            for (Node node : board.getNodes()) {
-                if (canPlaceSettlement(agent, node)) {
-                    options.add(new BuildOption("Built Settlement at node " + node.getNodeNum(), () -> {
-                        agent.deductSettlementCost();
-                        board.placeSettlement(node, new Settlement(agent, node));
-                        agent.addVictoryPoints(1);
-                    }));
-                }
-            }
-        }
+	boolean performRandomBuildAction(Agent agent){
+        int seat = agents.indexOf(agent);
+        int settlements = agent.canAffordSettlement() ? candidates.getSettlementCount() : 0;
+        int cities = agent.canAffordCity() ? candidates.getCityCount(seat) : 0;
+        int roads = agent.canAffordRoad() ? candidates.getRoadCount(seat) : 0;
+        int total = settlements + cities + roads;
+        if (total == 0) return false;
+
+        int choice = agent.getBuildPolicy().chooseBuild(this, seat, settlements, cities, roads);
+        if (choice < 0 || choice >= total) throw new IllegalStateException("build policy chose " + choice + " of " + total);
+        build(agent, seat, choice, settlements, cities);
+        return true;
+    }
 
-        if (agent.canAffordCity()) {
-            for (Node node : board.getNodes()) {
-                if (canPlaceCity(agent, node)) {
-                    options.add(new BuildOption("Built City at node " + node.getNodeNum(), () -> {
-                        agent.deductCityCost();
-                        board.placeCity(node, new City(agent, node), agent);
-                        agent.addVictoryPoints(1); // net +1 (city 2 - settlement 1)
-                    }));
-                }
-            }
+    /**
+     * Carries out one build choice, numbered as for BuildPolicy: settlement
+     * candidates, then the seat's city candidates, then its road candidates.
+     */
+    void build(Agent agent, int seat, int choice, int settlements, int cities) {
+        if (choice < settlements) {
+            buildSettlement(agent, board.getNode(candidates.getSettlementNode(choice)));
+            return;
         }
-
-        if (agent.canAffordRoad()) {
-            for (Edge edge : board.getEdges()) {
-                if (canPlaceRoad(agent, edge)) {
-                    options.add(new BuildOption("Built Road at edge (" + edge.getNodes()[0].getNodeNum() + "-" + edge.getNodes()[1].getNodeNum() + ")", () -> {
-                        agent.deductRoadCost();
-                        board.placeRoad(edge, new Road(agent, edge));
-                        updateLongestRoad();
-                    }));
-                }
-            }
+        choice -= settlements;
+        if (choice < cities) {
+            buildCity(agent, board.getNode(candidates.getCityNode(seat, choice)));
+            return;
         }
-
-        if (options.isEmpty()) return null;
-        BuildOption chosen = options.get(random.nextInt(options.size()));
-        chosen.run.run();
-        return chosen.action;
+        choice -= cities;
+        buildRoad(agent, board.getEdge(candidates.getRoadEdge(seat, choice)));
     }
 
-    private static class BuildOption {
-        final String action;
-        final Runnable run;
-        BuildOption(String action, Runnable run) { this.action = action; this.run = run; }
+    /** Places a settlement the agent can afford on a legal node (also used by TraceReplayer). */
+    void buildSettlement(Agent agent, Node node) {
+        agent.deductSettlementCost();
+        board.placeSettlement(node, new Settlement(agent, node));
+        candidates.onSettlementPlaced(node.getNodeNum());
+        agent.addVictoryPoints(1);
+        if (undo != null) undo.push(UndoStack.SETTLEMENT, agents.indexOf(agent), node.getNodeNum(), 0);
+        listener.onSettlementBuilt(agent, node);
+        if (metrics != null) metrics.recordSettlement();
     }
 
 	/**
-	 *Enforces the Distance Rule: a settlement may only be built if all 3 adjacent   
-	 *intersections are vacant
-	*/
-	private boolean canPlaceSettlement(Agent agent, Node node){
-        if (board.getBuildingAtNode(node) != null) return false;
-        for (Node neighbor : node.getAdjacentNodes()) {
-            if (board.getBuildingAtNode(neighbor) != null) return false;
-        }
-        return true;
+     * Enforces the upgrade rule: cities must replace existing settlements (the
+     * candidate sets only offer the agent's own settlements).
+     */
+    void buildCity(Agent agent, Node node) {
+        agent.deductCityCost();
+        board.placeCity(node, new City(agent, node), agent);
+        candidates.onCityPlaced(node.getNodeNum());
+        agent.addVictoryPoints(1); // net +1 (city 2 - settlement 1)
+        if (undo != null) undo.push(UndoStack.CITY, agents.indexOf(agent), node.getNodeNum(), 0);
+        listener.onCityBuilt(agent, node);
+        if (metrics != null) metrics.recordCity();
     }
 
-	/** Road can be placed if edge is free and adjacent to agent's settlement/city or to agent's existing road (R1.6). */
-	private boolean canPlaceRoad(Agent agent, Edge edge) {
-		if (board.getRoadAtEdge(edge) != null) return false;
-		for (Node node : edge.getNodes()) {
-			Building b = board.getBuildingAtNode(node);
-			if (b != null && b.getAgent().equals(agent)) return true;
-			for (Edge other : edgesAtNode(node)) {
-				Road r = board.getRoadAtEdge(other);
-				if (r != null && r.getAgent().equals(agent)) return true;
-			}
-		}
-		return false;
-	}
-
-	private List<Edge> edgesAtNode(Node node) {
-		List<Edge> out = new ArrayList<>();
-		for (Edge e : board.getEdges()) {
-			for (Node n : e.getNodes()) if (n == node) { out.add(e); break; }
-		}
-		return out;
-	}
-
-	/**
-     * Enforces the upgrade rule: cities must replace existing settlements
-     */
-	private boolean canPlaceCity(Agent agent, Node node) {
-        Building b = board.getBuildingAtNode(node);
-        return b instanceof Settlement && b.getAgent().equals(agent);
+    void buildRoad(Agent agent, Edge edge) {
+        agent.deductRoadCost();
+        board.placeRoad(edge, new Road(agent, edge));
+        candidates.onRoadPlaced(edge.getEdgeNum());
+        if (undo != null) {
+            int seat = agents.indexOf(agent);
+            undo.push(UndoStack.ROAD, seat, edge.getEdgeNum(), longestRoad.getLongestRoad(seat));
+        }
+        listener.onRoadBuilt(agent, edge);
+        if (metrics != null) metrics.recordRoad();
+        updateLongestRoad(agent, edge);
     }
 
 	/**
      * Implements the discard rule for a 7 roll: every player with more than 7 
      * cards must discard half (rounded down)
      */
-    /** Longest Road: 5+ connected road segments award 2 VPs. Recompute after each road build; only change VPs when holder changes. */
-    private void updateLongestRoad() {
+    /**
+     * Longest Road: 5+ connected road segments award 2 VPs. Only the builder's length
+     * can change, so only its road component is re-evaluated; VPs change only when the holder changes.
+     */
+    private void updateLongestRoad(Agent builder, Edge edge) {
+        longestRoad.onRoadPlaced(edge.getEdgeNum(), agents.indexOf(builder));
+        if (metrics != null) metrics.recordLongestRoadRecomputation();
         int requiredLength = 5;
         Agent bestAgent = null;
         int bestLength = requiredLength - 1;
-        for (Agent a : agents) {
-            int len = computeLongestRoadLength(a);
+        for (int seat = 0; seat < agents.size(); seat++) {
+            int len = longestRoad.getLongestRoad(seat);
             if (len >= requiredLength && len > bestLength) {
                 bestLength = len;
-                bestAgent = a;
+                bestAgent = agents.get(seat);
             }
         }
         if (bestAgent == agentWithLongestRoad) return; // no change
-        if (agentWithLongestRoad != null) {
-            agentWithLongestRoad.addVictoryPoints(-2);
-            System.out.println("  -> " + agentWithLongestRoad.getName() + " loses Longest Road (-2 VPs)");
+        Agent previous = agentWithLongestRoad;
+        if (undo != null) undo.push(UndoStack.LONGEST_ROAD, agents.indexOf(previous), agents.indexOf(bestAgent), 0);
+        if (previous != null) {
+            previous.addVictoryPoints(-2);
         }
         agentWithLongestRoad = bestAgent;
         if (bestAgent != null) {
             bestAgent.addVictoryPoints(2);
-            System.out.println("  -> " + bestAgent.getName() + " gains Longest Road (+2 VPs)");
-        }
-    }
-
-    /** Longest path (in edges) in the graph of this agent's roads. */
-    private int computeLongestRoadLength(Agent agent) {
-        Map<Node, List<Node>> adj = new HashMap<>();
-        Set<Edge> agentRoads = new HashSet<>();
-        for (Map.Entry<Edge, Road> e : board.getEdgeRoads().entrySet()) {
-            if (e.getValue().getAgent().equals(agent)) {
-                agentRoads.add(e.getKey());
-                Node a = e.getKey().getNodes()[0], b = e.getKey().getNodes()[1];
-                adj.computeIfAbsent(a, k -> new ArrayList<>()).add(b);
-                adj.computeIfAbsent(b, k -> new ArrayList<>()).add(a);
-            }
-        }
-        if (agentRoads.isEmpty()) return 0;
-        int maxPath = 0;
-        for (Node start : adj.keySet()) {
-            Set<Node> visited = new HashSet<>();
-            int len = longestPathFrom(start, adj, visited);
-            if (len > maxPath) maxPath = len;
         }
-        return maxPath;
-    }
-
-    private int longestPathFrom(Node node, Map<Node, List<Node>> adj, Set<Node> visited) {
-        visited.add(node);
-        int maxChild = 0;
-        for (Node next : adj.getOrDefault(node, new ArrayList<>())) {
-            if (!visited.contains(next)) {
-                int d = 1 + longestPathFrom(next, adj, visited);
-                if (d > maxChild) maxChild = d;
-            }
-        }
-        visited.remove(node);
-        return maxChild;
+        listener.onLongestRoadChanged(previous, bestAgent);
     }
 
     /** When hand > 7 and no build is possible, discard randomly until hand size is 7 (so mix can change over time). */
     private void discardDownToSeven(Agent agent) {
+        listener.onDiscard(agent, agent.getHandSize() - 7, false);
         while (agent.getHandSize() > 7) {
-            Resources r = agent.getRandomResourceFromHand();
-            if (r != null) agent.removeResource(r);
+            discardCard(agent, agent.getRandomResourceFromHand());
         }
+        if (metrics != null) metrics.recordDiscard(false);
     }
 
-    private void handleSevenRoll() {
-        for (Agent a : agents) {
+    /** Seven rolled: every agent holding more than 7 cards discards half of them at random. */
+    void handleSevenRoll() {
+        for (int seat = 0; seat < agents.size(); seat++) {
+            Agent a = agents.get(seat);
             int handSize = a.getHandSize();
             if (handSize > 7) {
                 int discardCount = handSize / 2; 
+                listener.onDiscard(a, discardCount, true);
                 for (int i = 0; i < discardCount; i++) {
-                    Resources r = a.getRandomResourceFromHand();
-                    a.removeResource(r);
+                    discardCard(a, a.getRandomResourceFromHand());
                 }
+                if (metrics != null) metrics.recordDiscard(true);
             }
         }
     }
 
-	/** Outputs current victory points at end of each round (single line so progression is clear). */
-    private void printRoundSummary() {
-        System.out.println("--- End of Round " + roundNumber + " --- VPs: "
-            + agents.get(0).getName() + " " + agents.get(0).getVictoryPoints() + ", "
-            + agents.get(1).getName() + " " + agents.get(1).getVictoryPoints() + ", "
-            + agents.get(2).getName() + " " + agents.get(2).getVictoryPoints() + ", "
-            + agents.get(3).getName() + " " + agents.get(3).getVictoryPoints());
+    /** Removes one card of the given type from the agent's hand and reports it. */
+    void discardCard(Agent agent, Resources resource) {
+        agent.removeResource(resource);
+        if (undo != null) undo.push(UndoStack.DISCARD, agents.indexOf(agent), resource.ordinal(), 0);
+        listener.onCardDiscarded(agent, resource);
+    }
+
+    /**
+     * Starts or stops recording changes for undo. While recording, every turn,
+     * roll, build and discard pushes a compact delta onto an undo stack, so a
+     * lookahead search can play moves on this game and take them back instead
+     * of copying it. Stopping discards the recorded changes.
+     */
+    public void setUndoEnabled(boolean enabled) {
+        if (!enabled) undo = null;
+        else if (undo == null) undo = new UndoStack();
+    }
+
+    /**
+     * Marks the current state, including the random state, so undoTo(mark)
+     * can return to it. Marks nest: undo to the innermost one first.
+     * @return the mark to pass to undoTo
+     */
+    public int mark() {
+        if (undo == null) throw new IllegalStateException("undo is not enabled");
+        int mark = undo.size();
+        undo.pushRandom(random.getState());
+        return mark;
+    }
+
+    /**
+     * Takes back every change since the mark in reverse order: hands, VPs,
+     * buildings, roads, build candidates, Longest Road lengths and holder,
+     * turn counters and the random state are exactly as they were when the
+     * mark was taken. Listeners and metrics are not told about undone changes.
+     */
+    public void undoTo(int mark) {
+        if (undo == null || mark < 0 || mark > undo.size()) throw new IllegalStateException("no such mark");
+        while (undo.size() > mark) {
+            long entry = undo.pop();
+            int seat = UndoStack.seat(entry);
+            int id = UndoStack.id(entry);
+            switch (UndoStack.kind(entry)) {
+                case UndoStack.TURN:
+                    turnNumber--;
+                    if (turnNumber % agents.size() == 0) roundNumber--;
+                    break;
+                case UndoStack.ROLL:
+                    board.unproduceResources(id);
+                    break;
+                case UndoStack.DISCARD:
+                    agents.get(seat).addResource(RESOURCE_TYPES[id]);
+                    break;
+                case UndoStack.SETTLEMENT: {
+                    Agent agent = agents.get(seat);
+                    agent.refundSettlementCost();
+                    agent.addVictoryPoints(-1);
+                    board.removeSettlement(board.getNode(id));
+                    candidates.onSettlementRemoved(seat, id);
+                    break;
+                }
+                case UndoStack.CITY: {
+                    Agent agent = agents.get(seat);
+                    Node node = board.getNode(id);
+                    agent.refundCityCost();
+                    agent.addVictoryPoints(-1);
+                    board.downgradeCity(node, new Settlement(agent, node));
+                    candidates.onCityRemoved(seat, id);
+                    break;
+                }
+                case UndoStack.ROAD:
+                    agents.get(seat).refundRoadCost();
+                    board.removeRoad(board.getEdge(id));
+                    candidates.onRoadRemoved(seat, id);
+                    longestRoad.removeRoad(id, seat, UndoStack.extra(entry));
+                    break;
+                case UndoStack.LONGEST_ROAD:
+                    if (id >= 0) agents.get(id).addVictoryPoints(-2);
+                    if (seat >= 0) agents.get(seat).addVictoryPoints(2);
+                    agentWithLongestRoad = seat >= 0 ? agents.get(seat) : null;
+                    break;
+                case UndoStack.RANDOM:
+                    random.setState(undo.pop());
+                    break;
+                default:
+                    throw new IllegalStateException("corrupt undo entry");
+            }
+        }
     }
 
 	/**
@@ -322,4 +400,105 @@ public class GamePlay {
         return this.turnNumber;
     }
 
+    /**
+     * Returns the number of rounds started so far.
+     * @return current roundNumber
+     */
+    public int getRoundNumber() {
+        return this.roundNumber;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Zobrist hash of the position: buildings, roads, every hand, the seat
+     * to move next and the Longest Road holder. It is kept up to date by
+     * every placement and hand change (and undo), so reading it costs one
+     * XOR per seat. The turn counters and random state are not part of it,
+     * so the same position reached in another turn or game hashes equally.
+     */
+    public long getHash() {
+        long hash = board.getHash() ^ Zobrist.toMove(turnNumber % agents.size());
+        for (int seat = 0; seat < agents.size(); seat++) {
+            hash ^= agents.get(seat).getHandHash();
+        }
+        if (agentWithLongestRoad != null) hash ^= Zobrist.longestRoad(agents.indexOf(agentWithLongestRoad));
+        return hash;
+    }
+
+    /** Agent holding Longest Road, or null. */
+    public Agent getLongestRoadHolder() {
+        return agentWithLongestRoad;
+    }
+
+    BuildCandidates getCandidates() {
+        return candidates;
+    }
+
+    LongestRoad getLongestRoadTracker() {
+        return longestRoad;
+    }
+
+    GameRandom getRandom() {
+        return random;
+    }
+
+    /** Sets the turn counters and Longest Road holder of a game being restored. */
+    void restoreProgress(int roundNumber, int turnNumber, Agent longestRoadHolder) {
+        this.roundNumber = roundNumber;
+        this.turnNumber = turnNumber;
+        this.agentWithLongestRoad = longestRoadHolder;
+    }
+
+    /**
+     * Independent copy of this game in its current state, on the same map and
+     * with its own board, agents, dice and random source, for lookahead. The
+     * copy's agents use the default build policy and it has no listener or
+     * metrics. Needs dice whose distribution is known (Dice.getWeights()).
+     */
+    public GamePlay fork() {
+        long[] weights = dice.getWeights();
+        if (weights == null) throw new IllegalStateException("cannot fork a game whose dice have no known distribution");
+        GameRandom forkRandom = new GameRandom(random.getState());
+        List<Agent> forkAgents = new ArrayList<>(agents.size());
+        for (Agent agent : agents) {
+            forkAgents.add(new Agent(0, agent.getName(), forkRandom));
+        }
+        GamePlay fork = new GamePlay(forkAgents, new Board(board.getTopology()), new DistributionDice(weights, forkRandom),
+            maxRounds, forkRandom);
+        GameSnapshot.restore(fork, GameSnapshot.save(this));
+        return fork;
+    }
+
+    /** Agents in seat order. */
+    public List<Agent> getAgents() {
+        return agents;
+    }
+
+    /** First agent (in seat order) with 10+ VPs, or null if the game hit the round limit. */
+    public Agent getWinner() {
+        for (Agent a : agents) {
+            if (a.getVictoryPoints() >= 10) return a;
+        }
+        return null;
+    }
+
+    /**
+     * Installs the receiver of this game's events, e.g. a TextGameListener for
+     * a console log. Games are quiet by default.
+     */
+    public void setListener(GameListener listener) {
+        this.listener = listener == null ? GameListener.QUIET : listener;
+    }
+
+    /**
+     * Makes this game report its counters and phase timings to the given
+     * metrics (usually shared by a whole batch). Null turns metrics off.
+     */
+    public void setMetrics(EngineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
 }//ends class GamePlay
@@ -0,0 +1,83 @@
+package Assignment1;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-game random source (SplitMix64). One instance is shared by the dice,
+ * the agents and the GamePlay controller of a single game, so a game is fully
+ * determined by its seed. Instances are not thread-safe and are never shared
+ * between games, so parallel batches do not contend on a common generator.
+ * The whole state is one long, which makes it trivial to save and restore.
+ */
+public class GameRandom {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Advanced by every unseeded instance, so instances created within one
+     * tick of a coarse clock still get different seeds (as in java.util.Random).
+     */
+    private static final AtomicLong SEED_UNIQUIFIER = new AtomicLong(0x2545F4914F6CDD1DL);
+
+    private long state;
+
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    /** Unseeded generator for interactive runs that do not need to be reproduced. */
+    public GameRandom() {
+        this(mix64(SEED_UNIQUIFIER.addAndGet(GOLDEN_GAMMA) ^ System.nanoTime()));
+    }
+
+    /**
+     * Seed of game number index in a batch started from masterSeed. Seeds are
+     * spread by the SplitMix64 finaliser, so neighbouring games are unrelated.
+     */
+    public static long seedForGame(long masterSeed, long index) {
+        return mix64(masterSeed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    public long nextLong() {
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * Uniform int in [0, bound) without modulo bias (Lemire's multiply-shift method).
+     * @param bound	Exclusive upper limit, must be positive.
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive");
+        long product = (nextLong() >>> 32) * bound;
+        long low = product & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                product = (nextLong() >>> 32) * bound;
+                low = product & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    /** Independent generator derived from this one (e.g. for a forked sub-simulation). */
+    public GameRandom split() {
+        return new GameRandom(mix64(nextLong()));
+    }
+
+    /** Current internal state; a generator created or reset with it continues the same sequence. */
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    /** SplitMix64 finaliser: a bijection that spreads every input bit over the whole result. */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,110 @@
+package Assignment1;
+
+import java.util.List;
+
+/**
+ * Outcome of a single finished game, detached from the game objects so that
+ * the board and agents can be garbage collected as soon as the game ends.
+ */
+public class GameResult {
+
+    private final long seed;
+    private final int winnerSeat;
+    private final int[] finalVictoryPoints;
+    private final int rounds;
+    private final int turns;
+    private final int longestRoadSeat;
+    private final int[] settlements;
+    private final int[] cities;
+    private final int[] roads;
+
+    /**
+     * @param longestRoadSeat	Seat holding Longest Road at the end, or -1.
+     * @param settlements		Settlements standing at the end, per seat (cities not included).
+     * @param cities			Cities per seat.
+     * @param roads				Roads per seat.
+     */
+    public GameResult(long seed, int winnerSeat, int[] finalVictoryPoints, int rounds, int turns,
+            int longestRoadSeat, int[] settlements, int[] cities, int[] roads) {
+        this.seed = seed;
+        this.winnerSeat = winnerSeat;
+        this.finalVictoryPoints = finalVictoryPoints;
+        this.rounds = rounds;
+        this.turns = turns;
+        this.longestRoadSeat = longestRoadSeat;
+        this.settlements = settlements;
+        this.cities = cities;
+        this.roads = roads;
+    }
+
+    /**
+     * Captures the result of a game after runSimulation() has returned.
+     * @param seed	The seed the game was created with.
+     */
+    public static GameResult of(GamePlay game, long seed) {
+        List<Agent> agents = game.getAgents();
+        BitBoard bits = game.getCandidates().getBitBoard();
+        int seats = agents.size();
+        int[] vps = new int[seats];
+        int[] settlements = new int[seats];
+        int[] cities = new int[seats];
+        int[] roads = new int[seats];
+        for (int i = 0; i < seats; i++) {
+            vps[i] = agents.get(i).getVictoryPoints();
+            settlements[i] = bits.getSettlementCount(i);
+            cities[i] = bits.getCityCount(i);
+            roads[i] = bits.getRoadCount(i);
+        }
+        Agent winner = game.getWinner();
+        int winnerSeat = winner == null ? -1 : agents.indexOf(winner);
+        return new GameResult(seed, winnerSeat, vps, game.getRoundNumber(), game.getTurnNumber(),
+            agents.indexOf(game.getLongestRoadHolder()), settlements, cities, roads);
+    }
+
+    /** Seed that recreates this game via GameFactory. */
+    public long getSeed() {
+        return seed;
+    }
+
+    /** Seat index of the winner, or -1 if the round limit was reached. */
+    public int getWinnerSeat() {
+        return winnerSeat;
+    }
+
+    public boolean hasWinner() {
+        return winnerSeat >= 0;
+    }
+
+    public int getVictoryPoints(int seat) {
+        return finalVictoryPoints[seat];
+    }
+
+    public int getSeatCount() {
+        return finalVictoryPoints.length;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    /** Seat holding Longest Road at the end, or -1. */
+    public int getLongestRoadSeat() {
+        return longestRoadSeat;
+    }
+
+    public int getSettlements(int seat) {
+        return settlements[seat];
+    }
+
+    public int getCities(int seat) {
+        return cities[seat];
+    }
+
+    public int getRoads(int seat) {
+        return roads[seat];
+    }
+}
@@ -0,0 +1,170 @@
+package Assignment1;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Saves and restores the complete state of a game between turns as a
+ * fixed-size byte array. The size depends only on the map and the number of
+ * seats (295 bytes for the standard four-agent game), so one buffer can be
+ * reused for any number of snapshots of the same game.
+ *
+ * Layout (little-endian):
+ * <pre>
+ * int  magic/version
+ * int  round number, int turn number
+ * long random state (dice, discards and build choices share it)
+ * byte seats, byte Longest Road holder seat (-1 for none)
+ * per seat: int VPs, int cached longest road, int card count per resource type
+ * per node: byte 0 = empty, seat + 1 = settlement, 0x80 | (seat + 1) = city
+ * per edge: byte 0 = empty, seat + 1 = road
+ * </pre>
+ * A restored game continues exactly as the original would have. To fork a
+ * game, create a second game on the same map with the same seats (e.g. with
+ * GameFactory) and restore the snapshot into it. Listeners and metrics are
+ * not part of the state.
+ */
+public final class GameSnapshot {
+
+    private static final int MAGIC = 0x43544E01; // "CTN" + format version 1
+    private static final int HEADER_BYTES = 22;
+    private static final int CITY_FLAG = 0x80;
+
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private GameSnapshot() {
+    }
+
+    /** Bytes needed for a snapshot of this game. */
+    public static int size(GamePlay game) {
+        int seats = game.getAgents().size();
+        if (seats > 127) throw new IllegalArgumentException("snapshots support at most 127 seats");
+        Board board = game.getBoard();
+        return HEADER_BYTES + seats * (8 + 4 * Agent.handTypes()) + board.getNodes().size() + board.getEdges().size();
+    }
+
+    /** Snapshot of the game in a new array. */
+    public static byte[] save(GamePlay game) {
+        byte[] out = new byte[size(game)];
+        save(game, out);
+        return out;
+    }
+
+    /**
+     * Writes the game's state into out without allocating.
+     * @param out	At least size(game) bytes.
+     */
+    public static void save(GamePlay game, byte[] out) {
+        List<Agent> agents = game.getAgents();
+        Board board = game.getBoard();
+        LongestRoad longestRoad = game.getLongestRoadTracker();
+        int seats = agents.size();
+        if (out.length < size(game)) throw new IllegalArgumentException("snapshot buffer too small");
+
+        INT.set(out, 0, MAGIC);
+        INT.set(out, 4, game.getRoundNumber());
+        INT.set(out, 8, game.getTurnNumber());
+        LONG.set(out, 12, game.getRandom().getState());
+        out[20] = (byte) seats;
+        out[21] = (byte) agents.indexOf(game.getLongestRoadHolder());
+        int pos = HEADER_BYTES;
+        for (int seat = 0; seat < seats; seat++) {
+            Agent agent = agents.get(seat);
+            INT.set(out, pos, agent.getVictoryPoints());
+            INT.set(out, pos + 4, longestRoad.getLongestRoad(seat));
+            pos += 8;
+            for (int r = 0; r < Agent.handTypes(); r++) {
+                INT.set(out, pos, agent.getHandCount(r));
+                pos += 4;
+            }
+        }
+        // Ownership codes come straight from the occupancy bit sets, touching only occupied spots.
+        int nodeStart = pos;
+        int edgeStart = nodeStart + board.getNodes().size();
+        Arrays.fill(out, nodeStart, edgeStart + board.getEdges().size(), (byte) 0);
+        BitBoard bits = game.getCandidates().getBitBoard();
+        for (int seat = 0; seat < seats; seat++) {
+            writeCodes(out, nodeStart, bits.getSettlementMask(seat), seat + 1);
+            writeCodes(out, nodeStart, bits.getCityMask(seat), CITY_FLAG | (seat + 1));
+            writeCodes(out, edgeStart, bits.getRoadMask(seat), seat + 1);
+        }
+    }
+
+    /** Writes code at offset + i for every bit i set in the mask. */
+    private static void writeCodes(byte[] out, int offset, long[] mask, int code) {
+        for (int w = 0; w < mask.length; w++) {
+            for (long word = mask[w]; word != 0; word &= word - 1) {
+                out[offset + (w << 6) + Long.numberOfTrailingZeros(word)] = (byte) code;
+            }
+        }
+    }
+
+    /**
+     * CRC-32 of the game's snapshot with the random state left out: equal for
+     * two games in the same position however their dice and choices were
+     * produced (used to verify replayed traces).
+     */
+    public static int stateChecksum(GamePlay game) {
+        byte[] state = save(game);
+        LONG.set(state, 12, 0L);
+        CRC32 crc = new CRC32();
+        crc.update(state);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Replaces the game's state with a snapshot taken from a game on the same
+     * map with the same number of seats.
+     * @throws IllegalArgumentException if the snapshot does not fit this game
+     */
+    public static void restore(GamePlay game, byte[] in) {
+        List<Agent> agents = game.getAgents();
+        Board board = game.getBoard();
+        LongestRoad longestRoad = game.getLongestRoadTracker();
+        int seats = agents.size();
+        if (in.length < size(game) || (int) INT.get(in, 0) != MAGIC || in[20] != seats) {
+            throw new IllegalArgumentException("snapshot does not match this game");
+        }
+
+        board.clear();
+        longestRoad.clear();
+        int pos = HEADER_BYTES;
+        for (int seat = 0; seat < seats; seat++) {
+            Agent agent = agents.get(seat);
+            agent.setVictoryPoints((int) INT.get(in, pos));
+            longestRoad.restoreLongestRoad(seat, (int) INT.get(in, pos + 4));
+            pos += 8;
+            for (int r = 0; r < Agent.handTypes(); r++) {
+                agent.setHandCount(r, (int) INT.get(in, pos));
+                pos += 4;
+            }
+        }
+        for (int n = 0, nodes = board.getNodes().size(); n < nodes; n++) {
+            int code = in[pos++] & 0xFF;
+            if (code == 0) continue;
+            Agent owner = agents.get((code & ~CITY_FLAG) - 1);
+            Node node = board.getNode(n);
+            if ((code & CITY_FLAG) != 0) {
+                board.placeCity(node, new City(owner, node), owner);
+            } else {
+                board.placeSettlement(node, new Settlement(owner, node));
+            }
+        }
+        for (int e = 0, edges = board.getEdges().size(); e < edges; e++) {
+            int code = in[pos++];
+            if (code == 0) continue;
+            Edge edge = board.getEdge(e);
+            board.placeRoad(edge, new Road(agents.get(code - 1), edge));
+            longestRoad.restoreRoad(e, code - 1);
+        }
+        game.getCandidates().rebuild();
+        game.getRandom().setState((long) LONG.get(in, 12));
+        int holder = in[21];
+        game.restoreProgress((int) INT.get(in, 4), (int) INT.get(in, 8), holder < 0 ? null : agents.get(holder));
+    }
+}
@@ -0,0 +1,179 @@
+package Assignment1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates hexagonal maps of any radius for scaling studies: radius 2 has
+ * the standard 19 tiles, radius r has 3r(r + 1) + 1 tiles.
+ *
+ * Tiles are addressed by axial coordinates (q, r) with |q|, |r|, |q + r| at
+ * most the radius, and numbered from the centre outwards ring by ring. Tile
+ * corners are placed on an integer lattice (pointy-top hexes: the centre of
+ * (q, r) is at x = 2q + r, y = 3r and the corners are one step away), so a
+ * corner shared by two or three tiles has the same lattice point in each and
+ * becomes a single node; likewise each side shared by two tiles is one edge.
+ * Nodes and edges are numbered in the order they are first met walking the
+ * tiles and their corners clockwise, as in MapSetup.
+ *
+ * Resources and numbers are dealt from shuffled decks: the given pools are
+ * repeated as often as needed for the map and shuffled with the given seed,
+ * so the mix of a large map follows the pools' proportions and the same seed
+ * always gives the same map. NULL resources become deserts (number 0).
+ */
+public final class HexMapGenerator {
+
+    /** Resource mix of the standard game: four each of lumber, wheat and wool, three brick, three ore, one desert. */
+    private static final Resources[] STANDARD_RESOURCES = {
+        Resources.LUMBER, Resources.LUMBER, Resources.LUMBER, Resources.LUMBER,
+        Resources.WHEAT, Resources.WHEAT, Resources.WHEAT, Resources.WHEAT,
+        Resources.WOOL, Resources.WOOL, Resources.WOOL, Resources.WOOL,
+        Resources.BRICK, Resources.BRICK, Resources.BRICK,
+        Resources.ORE, Resources.ORE, Resources.ORE,
+        Resources.NULL
+    };
+
+    /** Number tokens of the standard game (one per producing tile). */
+    private static final int[] STANDARD_NUMBERS = { 2, 3, 3, 4, 4, 5, 5, 6, 6, 8, 8, 9, 9, 10, 10, 11, 11, 12 };
+
+    /** Axial offsets of the six neighbouring tiles, in ring-walking order. */
+    private static final int[][] DIRECTIONS = { { 1, -1 }, { 1, 0 }, { 0, 1 }, { -1, 1 }, { -1, 0 }, { 0, -1 } };
+
+    /** Lattice offsets of the six corners, clockwise from the top. */
+    private static final int[][] CORNERS = { { 0, -2 }, { 1, -1 }, { 1, 1 }, { 0, 2 }, { -1, 1 }, { -1, -1 } };
+
+    private HexMapGenerator() {
+    }
+
+    /** A copy of the standard resource mix, e.g. to build a custom deck from. */
+    public static Resources[] standardResources() {
+        return STANDARD_RESOURCES.clone();
+    }
+
+    /** A copy of the standard number tokens. */
+    public static int[] standardNumbers() {
+        return STANDARD_NUMBERS.clone();
+    }
+
+    /** Map of the given radius with the standard resource and number mix. */
+    public static BoardTopology generate(int radius, long seed) {
+        return generate(radius, STANDARD_RESOURCES, STANDARD_NUMBERS, seed);
+    }
+
+    /**
+     * @param radius	Rings around the centre tile (0 for a single tile).
+     * @param resources	Resource deck, repeated as needed; NULL entries are deserts.
+     * @param numbers	Number deck for producing tiles (values 2..12), repeated as needed.
+     * @param seed		Seed of the shuffles.
+     */
+    public static BoardTopology generate(int radius, Resources[] resources, int[] numbers, long seed) {
+        if (radius < 0) throw new IllegalArgumentException("radius must not be negative");
+        if (resources.length == 0 || numbers.length == 0) throw new IllegalArgumentException("empty resource or number pool");
+        for (int number : numbers) {
+            if (number < 2 || number > BoardTopology.MAX_ROLL) throw new IllegalArgumentException("number " + number + " cannot be rolled");
+        }
+        int[][] positions = tilePositions(radius);
+        GameRandom random = new GameRandom(seed);
+        Resources[] tileResources = deal(resources, positions.length, random);
+
+        List<Node> nodes = new ArrayList<>();
+        List<Edge> edges = new ArrayList<>();
+        List<Tile> tiles = new ArrayList<>();
+        Map<Long, Node> nodeByPoint = new HashMap<>();
+        Map<Long, Edge> edgeByPair = new HashMap<>();
+
+        int producing = 0;
+        for (Resources resource : tileResources) {
+            if (resource != Resources.NULL) producing++;
+        }
+        int[] tileNumbers = deal(numbers, producing, random);
+        int nextNumber = 0;
+
+        for (int t = 0; t < positions.length; t++) {
+            int x = 2 * positions[t][0] + positions[t][1];
+            int y = 3 * positions[t][1];
+            Node[] corners = new Node[6];
+            for (int c = 0; c < 6; c++) {
+                long point = ((long) (x + CORNERS[c][0]) << 32) | ((y + CORNERS[c][1]) & 0xFFFFFFFFL);
+                Node node = nodeByPoint.get(point);
+                if (node == null) {
+                    node = new Node(nodes.size());
+                    nodes.add(node);
+                    nodeByPoint.put(point, node);
+                }
+                corners[c] = node;
+            }
+            List<Edge> tileEdges = new ArrayList<>(6);
+            for (int c = 0; c < 6; c++) {
+                Node a = corners[c];
+                Node b = corners[(c + 1) % 6];
+                long pair = ((long) Math.min(a.getNodeNum(), b.getNodeNum()) << 32) | Math.max(a.getNodeNum(), b.getNodeNum());
+                Edge edge = edgeByPair.get(pair);
+                if (edge == null) {
+                    edge = new Edge(edges.size(), a, b);
+                    edges.add(edge);
+                    edgeByPair.put(pair, edge);
+                    a.addEdge(edge);
+                    b.addEdge(edge);
+                }
+                tileEdges.add(edge);
+            }
+            Resources resource = tileResources[t];
+            int number = resource == Resources.NULL ? 0 : tileNumbers[nextNumber++];
+            tiles.add(new Tile(resource, number, t, tileEdges));
+        }
+        return new BoardTopology(tiles, edges, nodes);
+    }
+
+    /** Axial coordinates of every tile: the centre, then each ring walked from its north-west corner. */
+    private static int[][] tilePositions(int radius) {
+        int[][] positions = new int[3 * radius * (radius + 1) + 1][];
+        int count = 0;
+        positions[count++] = new int[] { 0, 0 };
+        for (int ring = 1; ring <= radius; ring++) {
+            int q = 0;
+            int r = -ring;
+            for (int side = 0; side < 6; side++) {
+                for (int step = 0; step < ring; step++) {
+                    positions[count++] = new int[] { q, r };
+                    q += DIRECTIONS[(side + 1) % 6][0];
+                    r += DIRECTIONS[(side + 1) % 6][1];
+                }
+            }
+        }
+        return positions;
+    }
+
+    /** Deals count cards from the pool repeated as often as needed and shuffled (Fisher-Yates). */
+    private static Resources[] deal(Resources[] pool, int count, GameRandom random) {
+        Resources[] deck = new Resources[roundUp(count, pool.length)];
+        for (int i = 0; i < deck.length; i++) deck[i] = pool[i % pool.length];
+        for (int i = deck.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Resources swap = deck[i];
+            deck[i] = deck[j];
+            deck[j] = swap;
+        }
+        return Arrays.copyOf(deck, count);
+    }
+
+    private static int[] deal(int[] pool, int count, GameRandom random) {
+        int[] deck = new int[roundUp(count, pool.length)];
+        for (int i = 0; i < deck.length; i++) deck[i] = pool[i % pool.length];
+        for (int i = deck.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = deck[i];
+            deck[i] = deck[j];
+            deck[j] = swap;
+        }
+        return Arrays.copyOf(deck, count);
+    }
+
+    /** Smallest multiple of unit that is at least count. */
+    private static int roundUp(int count, int unit) {
+        return (count + unit - 1) / unit * unit;
+    }
+}
@@ -0,0 +1,258 @@
+package Assignment1;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Exact resource income of buildings, computed from the map's roll numbers
+ * and the dice distribution instead of by simulation.
+ *
+ * Every turn one roll is made and every building on a tile with that number
+ * pays out (a city twice), so the cards a seat receives on a turn depend
+ * only on the roll: the income is a table of cards per roll and resource,
+ * and a turn's income is that table weighted by the roll probabilities. A 7
+ * and the desert pay nothing. Expected turns to afford a build are counted
+ * in game turns (every seat's turn pays out) from a given hand, with no
+ * other income, spending or discards.
+ */
+public class IncomeCalculator {
+
+    private static final Resources[] RESOURCE_TYPES = Resources.values();
+    private static final int ROLLS = BoardTopology.MAX_ROLL + 1;
+
+    /** What a build costs. */
+    public enum Build {
+        SETTLEMENT(1, 0, 1, 1, 1),
+        CITY(0, 3, 0, 0, 2),
+        ROAD(0, 0, 1, 1, 0);
+
+        private final int[] cost;
+
+        /** Cards needed, in Resources order (WOOL, ORE, BRICK, LUMBER, WHEAT). */
+        Build(int wool, int ore, int brick, int lumber, int wheat) {
+            this.cost = new int[RESOURCE_TYPES.length];
+            cost[Resources.WOOL.ordinal()] = wool;
+            cost[Resources.ORE.ordinal()] = ore;
+            cost[Resources.BRICK.ordinal()] = brick;
+            cost[Resources.LUMBER.ordinal()] = lumber;
+            cost[Resources.WHEAT.ordinal()] = wheat;
+        }
+
+        public int getCost(Resources resource) {
+            return cost[resource.ordinal()];
+        }
+    }
+
+    private final BoardTopology topology;
+    private final double[] rollProbability = new double[ROLLS];
+
+    /**
+     * @param topology		The map.
+     * @param rollWeights	Relative frequency of each roll value (as Dice.getWeights()).
+     */
+    public IncomeCalculator(BoardTopology topology, long[] rollWeights) {
+        this.topology = topology;
+        long total = 0;
+        for (long w : rollWeights) total += w;
+        if (total <= 0) throw new IllegalArgumentException("roll weights must not all be zero");
+        for (int roll = 0; roll < Math.min(ROLLS, rollWeights.length); roll++) {
+            rollProbability[roll] = (double) rollWeights[roll] / total;
+        }
+    }
+
+    /** Calculator for the dice of a game. */
+    public IncomeCalculator(BoardTopology topology, Dice dice) {
+        this(topology, requireWeights(dice));
+    }
+
+    /** Calculator for the standard map and two six-sided dice. */
+    public static IncomeCalculator standard() {
+        return new IncomeCalculator(MapSetup.standardTopology(), GameFactory.standardDice(new GameRandom(0L)));
+    }
+
+    private static long[] requireWeights(Dice dice) {
+        long[] weights = dice.getWeights();
+        if (weights == null) throw new IllegalArgumentException("dice have no known distribution");
+        return weights;
+    }
+
+    /** Probability that a turn's roll is the value. */
+    public double getRollProbability(int roll) {
+        return roll >= 0 && roll < ROLLS ? rollProbability[roll] : 0.0;
+    }
+
+    /** Income of a single settlement on the node. */
+    public Income ofNode(int nodeNum) {
+        return of(new int[] { nodeNum }, new int[0]);
+    }
+
+    /**
+     * Income of a set of buildings.
+     * @param settlements	Nodes holding a settlement.
+     * @param cities		Nodes holding a city.
+     */
+    public Income of(int[] settlements, int[] cities) {
+        int[][] cards = new int[ROLLS][RESOURCE_TYPES.length];
+        for (int node : settlements) addNode(cards, node, 1);
+        for (int node : cities) addNode(cards, node, 2);
+        return new Income(cards, rollProbability);
+    }
+
+    /** Income of everything the agent has built on the board. */
+    public Income ofAgent(Board board, Agent agent) {
+        int[][] cards = new int[ROLLS][RESOURCE_TYPES.length];
+        for (int n = 0; n < topology.getNodeCount(); n++) {
+            Building building = board.getBuildingAtNode(n);
+            if (building != null && building.getAgent() == agent) {
+                addNode(cards, n, building instanceof City ? 2 : 1);
+            }
+        }
+        return new Income(cards, rollProbability);
+    }
+
+    private void addNode(int[][] cards, int nodeNum, int amount) {
+        for (Tile tile : topology.getProducingTiles(nodeNum)) {
+            cards[tile.getRollValue()][tile.getResource().ordinal()] += amount;
+        }
+    }
+
+    /**
+     * Every node ranked as a place for a settlement: most expected cards per
+     * turn first, then most resource types, then fastest to a settlement
+     * from an empty hand, then lowest node ID. Does not check the Distance Rule.
+     */
+    public int[] rankNodes() {
+        List<Income> incomes = new ArrayList<>();
+        List<Integer> nodes = new ArrayList<>();
+        for (int n = 0; n < topology.getNodeCount(); n++) {
+            nodes.add(n);
+            incomes.add(ofNode(n));
+        }
+        nodes.sort(Comparator.comparingDouble((Integer n) -> -incomes.get(n).getExpectedCards())
+            .thenComparingInt(n -> -incomes.get(n).getResourceTypes())
+            .thenComparingDouble(n -> incomes.get(n).getExpectedTurnsToAfford(Build.SETTLEMENT))
+            .thenComparingInt(n -> n));
+        return nodes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** Cards per roll of some set of buildings, with the per-turn distributions they give. */
+    public static final class Income {
+        private final int[][] cards;
+        private final double[] rollProbability;
+
+        Income(int[][] cards, double[] rollProbability) {
+            this.cards = cards;
+            this.rollProbability = rollProbability;
+        }
+
+        /** Cards of the resource paid out on the roll. */
+        public int getCards(int roll, Resources resource) {
+            return roll >= 0 && roll < ROLLS ? cards[roll][resource.ordinal()] : 0;
+        }
+
+        /** Cards of all resources paid out on the roll. */
+        public int getCards(int roll) {
+            int total = 0;
+            for (Resources resource : RESOURCE_TYPES) total += getCards(roll, resource);
+            return total;
+        }
+
+        public double getExpectedCards(Resources resource) {
+            double expected = 0.0;
+            for (int roll = 0; roll < ROLLS; roll++) {
+                expected += rollProbability[roll] * cards[roll][resource.ordinal()];
+            }
+            return expected;
+        }
+
+        /** Expected cards of all resources per turn. */
+        public double getExpectedCards() {
+            double expected = 0.0;
+            for (int roll = 0; roll < ROLLS; roll++) {
+                expected += rollProbability[roll] * getCards(roll);
+            }
+            return expected;
+        }
+
+        /** Number of resources paid out on at least one roll. */
+        public int getResourceTypes() {
+            int types = 0;
+            for (Resources resource : RESOURCE_TYPES) {
+                if (getExpectedCards(resource) > 0.0) types++;
+            }
+            return types;
+        }
+
+        /** Distribution of a turn's cards of the resource: element k is the probability of exactly k. */
+        public double[] getDistribution(Resources resource) {
+            int max = 0;
+            for (int roll = 0; roll < ROLLS; roll++) max = Math.max(max, getCards(roll, resource));
+            double[] distribution = new double[max + 1];
+            for (int roll = 0; roll < ROLLS; roll++) {
+                distribution[getCards(roll, resource)] += rollProbability[roll];
+            }
+            return distribution;
+        }
+
+        /** Distribution of a turn's cards of all resources together. */
+        public double[] getDistribution() {
+            int max = 0;
+            for (int roll = 0; roll < ROLLS; roll++) max = Math.max(max, getCards(roll));
+            double[] distribution = new double[max + 1];
+            for (int roll = 0; roll < ROLLS; roll++) {
+                distribution[getCards(roll)] += rollProbability[roll];
+            }
+            return distribution;
+        }
+
+        /** Expected turns until an empty hand can pay for the build; infinite if some resource is never paid. */
+        public double getExpectedTurnsToAfford(Build build) {
+            return getExpectedTurnsToAfford(build, new int[RESOURCE_TYPES.length]);
+        }
+
+        /**
+         * Expected turns until the hand can pay for the build, with only this
+         * income coming in.
+         * @param hand	Cards held per resource, in Resources order.
+         */
+        public double getExpectedTurnsToAfford(Build build, int[] hand) {
+            // State: cards held per resource, capped at the cost (need), as digits of a mixed radix.
+            int[] need = new int[RESOURCE_TYPES.length];
+            int[] radix = new int[RESOURCE_TYPES.length];
+            int states = 1;
+            for (int r = 0; r < need.length; r++) {
+                need[r] = build.cost[r];
+                radix[r] = states;
+                states *= need[r] + 1;
+            }
+            int start = 0;
+            for (int r = 0; r < need.length; r++) {
+                start += Math.min(r < hand.length ? hand[r] : 0, need[r]) * radix[r];
+            }
+            // Cards only ever accumulate, so every move goes to a higher state and the
+            // states can be solved from the top (everything paid, 0 turns) down.
+            double[] turns = new double[states];
+            for (int s = states - 2; s >= start; s--) {
+                double leave = 0.0;
+                double rest = 1.0;
+                for (int roll = 0; roll < ROLLS; roll++) {
+                    double p = rollProbability[roll];
+                    if (p == 0.0) continue;
+                    int next = 0;
+                    for (int r = 0; r < need.length; r++) {
+                        int held = s / radix[r] % (need[r] + 1);
+                        next += Math.min(held + cards[roll][r], need[r]) * radix[r];
+                    }
+                    if (next != s) {
+                        leave += p;
+                        rest += p * turns[next];
+                    }
+                }
+                // E[s] = 1 + stay E[s] + sum p E[next], solved for E[s].
+                turns[s] = leave == 0.0 ? Double.POSITIVE_INFINITY : rest / leave;
+            }
+            return turns[start];
+        }
+    }
+}
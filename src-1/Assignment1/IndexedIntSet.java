@@ -0,0 +1,108 @@
+package Assignment1;
+
+import java.util.Arrays;
+
+/**
+ * Set of small non-negative ints (node or edge IDs) with constant-time
+ * membership test, cheap add and remove, and access by rank: get(i) is the i-th
+ * smallest member, so a uniformly random member can be drawn by drawing a
+ * rank. Members live in a bit set, which makes the rank of a value depend
+ * only on the set's contents and not on the order of earlier additions and
+ * removals; a set rebuilt from a snapshot therefore draws exactly like the
+ * original. A Fenwick tree over the popcount of each 64-value word keeps
+ * add and remove at O(log(universe / 64)) and lets get() find the word
+ * holding a rank in the same time, so drawing stays cheap on large maps.
+ */
+public class IndexedIntSet {
+
+    private final long[] bits;
+    /** Fenwick tree (1-based) over Long.bitCount(bits[w]). */
+    private final int[] counts;
+    /** Highest power of two not above bits.length, where get() starts its descent. */
+    private final int topStep;
+    private int size;
+
+    /**
+     * @param universe	Values must lie in [0, universe).
+     */
+    public IndexedIntSet(int universe) {
+        this.bits = new long[Math.max(1, (universe + 63) >>> 6)];
+        this.counts = new int[bits.length + 1];
+        this.topStep = Integer.highestOneBit(bits.length);
+    }
+
+    public boolean contains(int value) {
+        return (bits[value >>> 6] & (1L << value)) != 0;
+    }
+
+    /** Adds the value; does nothing if already present. */
+    public void add(int value) {
+        long word = bits[value >>> 6];
+        long bit = 1L << value;
+        if ((word & bit) != 0) return;
+        bits[value >>> 6] = word | bit;
+        size++;
+        updateCount(value >>> 6, 1);
+    }
+
+    /** Removes the value; does nothing if absent. */
+    public void remove(int value) {
+        long word = bits[value >>> 6];
+        long bit = 1L << value;
+        if ((word & bit) == 0) return;
+        bits[value >>> 6] = word & ~bit;
+        size--;
+        updateCount(value >>> 6, -1);
+    }
+
+    /** Adds or removes the value so that membership equals present. */
+    public void set(int value, boolean present) {
+        if (present) add(value);
+        else remove(value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** The index-th smallest member, index in [0, size()). */
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        // Descend the tree to the last word boundary with at most index members before it.
+        int w = 0;
+        for (int step = topStep; step > 0; step >>>= 1) {
+            int next = w + step;
+            if (next <= bits.length && counts[next] <= index) {
+                w = next;
+                index -= counts[next];
+            }
+        }
+        return (w << 6) + select(bits[w], index);
+    }
+
+    public void clear() {
+        Arrays.fill(bits, 0L);
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    private void updateCount(int word, int delta) {
+        for (int i = word + 1; i < counts.length; i += i & -i) {
+            counts[i] += delta;
+        }
+    }
+
+    /** Position of the k-th lowest set bit of word (k < bitCount(word)), by halving. */
+    static int select(long word, int k) {
+        int base = 0;
+        for (int width = 32; width > 0; width >>>= 1) {
+            int low = Long.bitCount(word & ((1L << width) - 1));
+            if (k >= low) {
+                k -= low;
+                word >>>= width;
+                base += width;
+            }
+        }
+        return base;
+    }
+}
@@ -0,0 +1,471 @@
+package Assignment1;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Plays a batch of quiet games with RANDOM builds by stepping hundreds or
+ * thousands of them together, one turn per game per step, on plain arrays instead of game
+ * objects.
+ *
+ * The state of every game in flight ("lane") lives in parallel primitive
+ * arrays, one array per field and one slice of it per lane: hands, hand
+ * sizes and VPs as ints, occupancy and build candidates as bit sets, and a
+ * production table per lane that holds, for every roll, the cards each seat
+ * receives. A step first advances every lane's turn and rolls its dice, then
+ * pays out all rolls in one tight loop that adds a table slice onto the
+ * hands (a 7 has an empty slice, so the loop has no branches and the JIT can
+ * vectorise it), and finally plays the discards and builds lane by lane.
+ * When a game ends its lane is reset and takes the next game of the batch,
+ * so every step stays full until the batch runs out.
+ *
+ * Each lane draws from its own SplitMix64 state in exactly the order
+ * GamePlay does, and builds are numbered as in BuildCandidates, so game i
+ * of a batch ends exactly as game i of a BatchRunner batch with the same
+ * master seed. Longest Road keeps a LongestRoad per lane; its search is
+ * the same as in GamePlay.
+ */
+public class LockstepEngine {
+
+    /** Games stepped together by default; small enough that every lane's tables stay in cache. */
+    public static final int DEFAULT_LANES = 256;
+
+    private static final int T = Agent.handTypes();
+    private static final int ROLLS = BoardTopology.MAX_ROLL + 1;
+    private static final int WOOL = Resources.WOOL.ordinal();
+    private static final int ORE = Resources.ORE.ordinal();
+    private static final int BRICK = Resources.BRICK.ordinal();
+    private static final int LUMBER = Resources.LUMBER.ordinal();
+    private static final int WHEAT = Resources.WHEAT.ordinal();
+
+    private final BoardTopology topology;
+    private final int[] startingNodes;
+    private final int maxRounds;
+    private final int lanes;
+    private final int seats;
+    private final int nodeWords;
+    private final int edgeWords;
+    private final GameRandom random = new GameRandom(0L);
+    private final Dice dice = GameFactory.standardDice(random);
+    private ObjIntConsumer<GameResult> resultListener;
+
+    // Per lane.
+    private final int[] gameIndex;
+    private final long[] seed;
+    private final long[] rng;
+    private final int[] turn;
+    private final int[] round;
+    private final int[] roll;
+    private final int[] holder;
+    private final int[] spotCount;
+    private final LongestRoad[] longestRoad;
+    // Per lane and seat (and resource, roll or word).
+    private final int[] hand;
+    private final int[] handSize;
+    private final int[] vp;
+    private final int[] income;
+    private final int[] incomeSize;
+    private final int[] settlementCount;
+    private final int[] cityCount;
+    private final int[] roadCount;
+    private final int[] roadCandidateCount;
+    // Bit sets: per lane for nodeWords or edgeWords longs, per lane and seat likewise.
+    private final long[] buildings;
+    private final long[] spots;
+    private final long[] roads;
+    private final long[] settlements;
+    private final long[] cities;
+    private final long[] seatRoads;
+    private final long[] roadCandidates;
+
+    private final int[] active;
+    private int activeCount;
+
+    /**
+     * @param topology		The map every game is played on.
+     * @param startingNodes	Starting settlement per seat (one seat per entry), as for GameFactory.
+     * @param maxRounds		Round limit of every game.
+     * @param lanes			Games stepped together.
+     * @throws IllegalArgumentException if a node does not exist or two starting nodes break the distance rule
+     */
+    public LockstepEngine(BoardTopology topology, int[] startingNodes, int maxRounds, int lanes) {
+        if (lanes < 1) throw new IllegalArgumentException("lanes must be at least 1");
+        GameFactory.checkStartingNodes(topology, startingNodes);
+        this.topology = topology;
+        this.startingNodes = startingNodes.clone();
+        this.maxRounds = maxRounds;
+        this.lanes = lanes;
+        this.seats = startingNodes.length;
+        this.nodeWords = (topology.getNodeCount() + 63) >>> 6;
+        this.edgeWords = (topology.getEdgeCount() + 63) >>> 6;
+        int laneSeats = lanes * seats;
+        this.gameIndex = new int[lanes];
+        this.seed = new long[lanes];
+        this.rng = new long[lanes];
+        this.turn = new int[lanes];
+        this.round = new int[lanes];
+        this.roll = new int[lanes];
+        this.holder = new int[lanes];
+        this.spotCount = new int[lanes];
+        this.longestRoad = new LongestRoad[lanes];
+        for (int l = 0; l < lanes; l++) {
+            longestRoad[l] = new LongestRoad(topology, seats);
+        }
+        this.hand = new int[laneSeats * T];
+        this.handSize = new int[laneSeats];
+        this.vp = new int[laneSeats];
+        this.income = new int[lanes * ROLLS * seats * T];
+        this.incomeSize = new int[lanes * ROLLS * seats];
+        this.settlementCount = new int[laneSeats];
+        this.cityCount = new int[laneSeats];
+        this.roadCount = new int[laneSeats];
+        this.roadCandidateCount = new int[laneSeats];
+        this.buildings = new long[lanes * nodeWords];
+        this.spots = new long[lanes * nodeWords];
+        this.roads = new long[lanes * edgeWords];
+        this.settlements = new long[laneSeats * nodeWords];
+        this.cities = new long[laneSeats * nodeWords];
+        this.seatRoads = new long[laneSeats * edgeWords];
+        this.roadCandidates = new long[laneSeats * edgeWords];
+        this.active = new int[lanes];
+    }
+
+    /** Engine for the standard game (map, seats and starting settlements of GameFactory.createStandardGame). */
+    public static LockstepEngine standard(int maxRounds, int lanes) {
+        return new LockstepEngine(MapSetup.standardTopology(), GameFactory.STARTING_NODES, maxRounds, lanes);
+    }
+
+    /** Receives each finished game with its index in the batch, in the order the games end. */
+    public void setResultListener(ObjIntConsumer<GameResult> resultListener) {
+        this.resultListener = resultListener;
+    }
+
+    /**
+     * Plays games 0 to games - 1 of the batch on the calling thread; game i
+     * is seeded with GameRandom.seedForGame(masterSeed, i).
+     */
+    public BatchResult run(int games, long masterSeed) {
+        BatchResult result = new BatchResult(seats);
+        int next = 0;
+        activeCount = 0;
+        while (activeCount < lanes && next < games) {
+            int l = activeCount;
+            reset(l, next, GameRandom.seedForGame(masterSeed, next));
+            next++;
+            active[activeCount++] = l;
+        }
+        while (activeCount > 0) {
+            // A new game may already be over (e.g. with no rounds allowed), so retire before stepping.
+            for (int i = activeCount - 1; i >= 0; i--) {
+                int l = active[i];
+                while (isOver(l)) {
+                    GameResult game = result(l);
+                    result.add(game);
+                    if (resultListener != null) resultListener.accept(game, gameIndex[l]);
+                    if (next == games) {
+                        active[i] = active[--activeCount];
+                        break;
+                    }
+                    reset(l, next, GameRandom.seedForGame(masterSeed, next));
+                    next++;
+                }
+            }
+            if (activeCount > 0) step();
+        }
+        return result;
+    }
+
+    /** One turn of every active game. */
+    private void step() {
+        for (int i = 0; i < activeCount; i++) {
+            int l = active[i];
+            if (turn[l] % seats == 0) round[l]++;
+            turn[l]++;
+            random.setState(rng[l]);
+            roll[l] = dice.roll();
+            rng[l] = random.getState();
+        }
+        produce();
+        for (int i = 0; i < activeCount; i++) {
+            int l = active[i];
+            int seat = (turn[l] - 1) % seats;
+            random.setState(rng[l]);
+            if (roll[l] == 7) discardHalves(l);
+            if (handSize[l * seats + seat] > 7 && !build(l, seat)) discardDownToSeven(l, seat);
+            rng[l] = random.getState();
+        }
+    }
+
+    /** Pays out every lane's roll: adds the roll's slice of the lane's production table onto its hands. */
+    private void produce() {
+        int handSpan = seats * T;
+        for (int i = 0; i < activeCount; i++) {
+            int l = active[i];
+            int h = l * handSpan;
+            int in = (l * ROLLS + roll[l]) * handSpan;
+            for (int k = 0; k < handSpan; k++) {
+                hand[h + k] += income[in + k];
+            }
+            int s = l * seats;
+            int is = (l * ROLLS + roll[l]) * seats;
+            for (int k = 0; k < seats; k++) {
+                handSize[s + k] += incomeSize[is + k];
+            }
+        }
+    }
+
+    /** Seven rolled: every seat holding more than 7 cards discards half of them at random. */
+    private void discardHalves(int l) {
+        for (int seat = 0; seat < seats; seat++) {
+            int size = handSize[l * seats + seat];
+            if (size > 7) {
+                for (int i = size / 2; i > 0; i--) {
+                    discardRandomCard(l, seat);
+                }
+            }
+        }
+    }
+
+    private void discardDownToSeven(int l, int seat) {
+        while (handSize[l * seats + seat] > 7) {
+            discardRandomCard(l, seat);
+        }
+    }
+
+    /** As Agent.getRandomResourceFromHand followed by removing the card. */
+    private void discardRandomCard(int l, int seat) {
+        int ls = l * seats + seat;
+        int h = ls * T;
+        int card = random.nextInt(handSize[ls]);
+        for (int r = 0; r < T; r++) {
+            card -= hand[h + r];
+            if (card < 0) {
+                hand[h + r]--;
+                handSize[ls]--;
+                return;
+            }
+        }
+    }
+
+    /** As GamePlay.performRandomBuildAction with the RANDOM policy; false if nothing can be built. */
+    private boolean build(int l, int seat) {
+        int ls = l * seats + seat;
+        int h = ls * T;
+        boolean road = hand[h + LUMBER] >= 1 && hand[h + BRICK] >= 1;
+        int settlementChoices = road && hand[h + WHEAT] >= 1 && hand[h + WOOL] >= 1 ? spotCount[l] : 0;
+        int cityChoices = hand[h + WHEAT] >= 2 && hand[h + ORE] >= 3 ? settlementCount[ls] : 0;
+        int roadChoices = road ? roadCandidateCount[ls] : 0;
+        int total = settlementChoices + cityChoices + roadChoices;
+        if (total == 0) return false;
+        int choice = random.nextInt(total);
+        if (choice < settlementChoices) {
+            pay(ls, LUMBER, 1, BRICK, 1, WHEAT, 1, WOOL, 1);
+            placeSettlement(l, seat, select(spots, l * nodeWords, nodeWords, choice));
+            vp[ls]++;
+            return true;
+        }
+        choice -= settlementChoices;
+        if (choice < cityChoices) {
+            pay(ls, WHEAT, 2, ORE, 3, WHEAT, 0, ORE, 0);
+            placeCity(l, seat, select(settlements, ls * nodeWords, nodeWords, choice));
+            vp[ls]++;
+            return true;
+        }
+        choice -= cityChoices;
+        pay(ls, LUMBER, 1, BRICK, 1, LUMBER, 0, BRICK, 0);
+        placeRoad(l, seat, select(roadCandidates, ls * edgeWords, edgeWords, choice));
+        return true;
+    }
+
+    private void pay(int ls, int r1, int n1, int r2, int n2, int r3, int n3, int r4, int n4) {
+        int h = ls * T;
+        hand[h + r1] -= n1;
+        hand[h + r2] -= n2;
+        hand[h + r3] -= n3;
+        hand[h + r4] -= n4;
+        handSize[ls] -= n1 + n2 + n3 + n4;
+    }
+
+    private void placeSettlement(int l, int seat, int node) {
+        int ls = l * seats + seat;
+        setBit(buildings, l * nodeWords, node);
+        setBit(settlements, ls * nodeWords, node);
+        settlementCount[ls]++;
+        addIncome(l, seat, node);
+        refreshSpot(l, node);
+        for (int neighbor : topology.getNodeNeighborIds(node)) {
+            refreshSpot(l, neighbor);
+        }
+        for (int e : topology.getNodeEdgeIds(node)) {
+            refreshEdge(l, e);
+        }
+    }
+
+    /** The city's second card per tile comes from adding the node's income once more. */
+    private void placeCity(int l, int seat, int node) {
+        int ls = l * seats + seat;
+        clearBit(settlements, ls * nodeWords, node);
+        setBit(cities, ls * nodeWords, node);
+        settlementCount[ls]--;
+        cityCount[ls]++;
+        addIncome(l, seat, node);
+    }
+
+    private void placeRoad(int l, int seat, int edge) {
+        int ls = l * seats + seat;
+        setBit(roads, l * edgeWords, edge);
+        setBit(seatRoads, ls * edgeWords, edge);
+        roadCount[ls]++;
+        refreshEdge(l, edge);
+        for (int n : topology.getEdgeNodeIds(edge)) {
+            for (int e : topology.getNodeEdgeIds(n)) {
+                refreshEdge(l, e);
+            }
+        }
+        updateLongestRoad(l, seat, edge);
+    }
+
+    /** As GamePlay.updateLongestRoad: 5+ segments and strictly longer than everyone else earns 2 VPs. */
+    private void updateLongestRoad(int l, int seat, int edge) {
+        LongestRoad lengths = longestRoad[l];
+        lengths.onRoadPlaced(edge, seat);
+        int best = -1;
+        int bestLength = 4;
+        for (int s = 0; s < seats; s++) {
+            int len = lengths.getLongestRoad(s);
+            if (len > bestLength) {
+                bestLength = len;
+                best = s;
+            }
+        }
+        int previous = holder[l];
+        if (best == previous) return;
+        if (previous >= 0) vp[l * seats + previous] = Math.max(0, vp[l * seats + previous] - 2);
+        holder[l] = best;
+        if (best >= 0) vp[l * seats + best] += 2;
+    }
+
+    /** One card per producing tile around the node, on the tile's roll. */
+    private void addIncome(int l, int seat, int node) {
+        for (Tile tile : topology.getProducingTiles(node)) {
+            int r = (l * ROLLS + tile.getRollValue()) * seats + seat;
+            income[r * T + tile.getResource().ordinal()]++;
+            incomeSize[r]++;
+        }
+    }
+
+    /** Distance Rule for one node. */
+    private void refreshSpot(int l, int node) {
+        int offset = l * nodeWords;
+        boolean spot = !topology.getClosedNeighborhoods().intersects(node, buildings, offset);
+        if (spot != hasBit(spots, offset, node)) {
+            flipBit(spots, offset, node);
+            spotCount[l] += spot ? 1 : -1;
+        }
+    }
+
+    /** Whether each seat may build a road on the edge (free and touching the seat, R1.6). */
+    private void refreshEdge(int l, int edge) {
+        boolean free = !hasBit(roads, l * edgeWords, edge);
+        for (int seat = 0; seat < seats; seat++) {
+            int ls = l * seats + seat;
+            boolean legal = free && (topology.getEdgeEnds().intersects(edge, settlements, ls * nodeWords)
+                || topology.getEdgeEnds().intersects(edge, cities, ls * nodeWords)
+                || topology.getTouchingEdges().intersects(edge, seatRoads, ls * edgeWords));
+            int offset = ls * edgeWords;
+            if (legal != hasBit(roadCandidates, offset, edge)) {
+                flipBit(roadCandidates, offset, edge);
+                roadCandidateCount[ls] += legal ? 1 : -1;
+            }
+        }
+    }
+
+    /** Starts game index of the batch in lane l: starting settlements and the starting hand. */
+    private void reset(int l, int index, long gameSeed) {
+        gameIndex[l] = index;
+        seed[l] = gameSeed;
+        rng[l] = gameSeed;
+        turn[l] = 0;
+        round[l] = 0;
+        holder[l] = -1;
+        spotCount[l] = 0;
+        longestRoad[l].clear();
+        int ls = l * seats;
+        Arrays.fill(hand, ls * T, (ls + seats) * T, 0);
+        Arrays.fill(income, l * ROLLS * seats * T, (l + 1) * ROLLS * seats * T, 0);
+        Arrays.fill(incomeSize, l * ROLLS * seats, (l + 1) * ROLLS * seats, 0);
+        Arrays.fill(settlementCount, ls, ls + seats, 0);
+        Arrays.fill(cityCount, ls, ls + seats, 0);
+        Arrays.fill(roadCount, ls, ls + seats, 0);
+        Arrays.fill(roadCandidateCount, ls, ls + seats, 0);
+        Arrays.fill(buildings, l * nodeWords, (l + 1) * nodeWords, 0L);
+        Arrays.fill(roads, l * edgeWords, (l + 1) * edgeWords, 0L);
+        Arrays.fill(settlements, ls * nodeWords, (ls + seats) * nodeWords, 0L);
+        Arrays.fill(cities, ls * nodeWords, (ls + seats) * nodeWords, 0L);
+        Arrays.fill(seatRoads, ls * edgeWords, (ls + seats) * edgeWords, 0L);
+        Arrays.fill(roadCandidates, ls * edgeWords, (ls + seats) * edgeWords, 0L);
+        // Every node starts as a spot; the starting settlements then take theirs away.
+        Arrays.fill(spots, l * nodeWords, (l + 1) * nodeWords, 0L);
+        for (int n = 0; n < topology.getNodeCount(); n++) {
+            setBit(spots, l * nodeWords, n);
+        }
+        spotCount[l] = topology.getNodeCount();
+        for (int seat = 0; seat < seats; seat++) {
+            placeSettlement(l, seat, startingNodes[seat]);
+            int h = (ls + seat) * T;
+            hand[h + LUMBER] = 1;
+            hand[h + BRICK] = 1;
+            hand[h + WHEAT] = 1;
+            hand[h + WOOL] = 1;
+            handSize[ls + seat] = 4;
+            vp[ls + seat] = 1;
+        }
+    }
+
+    /** As GamePlay.isOver. */
+    private boolean isOver(int l) {
+        return winner(l) >= 0 || (round[l] >= maxRounds && turn[l] % seats == 0);
+    }
+
+    /** First seat with 10+ VPs, or -1. */
+    private int winner(int l) {
+        for (int seat = 0; seat < seats; seat++) {
+            if (vp[l * seats + seat] >= 10) return seat;
+        }
+        return -1;
+    }
+
+    private GameResult result(int l) {
+        int ls = l * seats;
+        return new GameResult(seed[l], winner(l), Arrays.copyOfRange(vp, ls, ls + seats), round[l], turn[l], holder[l],
+            Arrays.copyOfRange(settlementCount, ls, ls + seats), Arrays.copyOfRange(cityCount, ls, ls + seats),
+            Arrays.copyOfRange(roadCount, ls, ls + seats));
+    }
+
+    /** The index-th lowest member of the set stored in words [offset, offset + words). */
+    private static int select(long[] set, int offset, int words, int index) {
+        for (int w = 0; w < words; w++) {
+            long word = set[offset + w];
+            int count = Long.bitCount(word);
+            if (index < count) return (w << 6) + IndexedIntSet.select(word, index);
+            index -= count;
+        }
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    private static boolean hasBit(long[] set, int offset, int bit) {
+        return (set[offset + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    private static void setBit(long[] set, int offset, int bit) {
+        set[offset + (bit >>> 6)] |= 1L << bit;
+    }
+
+    private static void clearBit(long[] set, int offset, int bit) {
+        set[offset + (bit >>> 6)] &= ~(1L << bit);
+    }
+
+    private static void flipBit(long[] set, int offset, int bit) {
+        set[offset + (bit >>> 6)] ^= 1L << bit;
+    }
+}
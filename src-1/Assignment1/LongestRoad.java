@@ -0,0 +1,343 @@
+package Assignment1;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Longest Road bookkeeping for one game. Each seat's longest road is cached
+ * and only the road network touched by a new road is searched again: adding
+ * a road can only lengthen the component it joins, so every other component
+ * keeps its cached value.
+ *
+ * The search works on edge and node IDs with preallocated scratch arrays, so
+ * placing a road performs no allocation. A road's length is the longest path
+ * (in edges) through the seat's roads that does not revisit a node.
+ */
+public class LongestRoad {
+
+    /** No seat owns the edge. */
+    private static final int NO_OWNER = -1;
+
+    private final int[][] nodeEdges;
+    private final int[] edgeNodeA;
+    private final int[] edgeNodeB;
+    private final int[] edgeOwner;
+    private final int[] longest;
+
+    // Scratch space reused by every search.
+    private final boolean[] visited;
+    private final boolean[] inComponent;
+    private final int[] componentNodes;
+    private int componentSize;
+    private int componentEdges;
+    private int bound;
+    private int best;
+    private final int[] reachedEpoch;
+    private int epoch;
+    private final int[] disc;
+    private final int[] low;
+    private final int[] downFrom;
+    private final int[] vertexStack;
+    private int timer;
+    private int stackSize;
+
+    // Per-evaluation memo of proven bounds, keyed by end node and reachable region.
+    private static final int MEMO_SIZE = 1 << 14;
+    private static final int MEMO_PROBES = 4;
+    /**
+     * The memo is only meaningful during one evaluation, so a single table per
+     * thread serves every game that thread plays instead of 256 KB per game.
+     */
+    private static final ThreadLocal<Memo> MEMO = ThreadLocal.withInitial(Memo::new);
+    private final long[] nodeKey;
+    private long regionHash;
+    private Memo memo;
+
+    public LongestRoad(Board board, int seats) {
+        this(board.getTopology(), seats);
+    }
+
+    /** Bookkeeping for a game on the map without a Board (e.g. one lane of LockstepEngine). */
+    LongestRoad(BoardTopology topology, int seats) {
+        List<Node> nodes = topology.getNodes();
+        List<Edge> edges = topology.getEdges();
+        // Adjacency comes from the shared topology; only ownership and scratch space are per game.
+        this.edgeNodeA = new int[edges.size()];
+        this.edgeNodeB = new int[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            edgeNodeA[e] = topology.getEdgeNodeIds(e)[0];
+            edgeNodeB[e] = topology.getEdgeNodeIds(e)[1];
+        }
+        this.nodeEdges = new int[nodes.size()][];
+        for (int n = 0; n < nodes.size(); n++) {
+            nodeEdges[n] = topology.getNodeEdgeIds(n);
+        }
+        this.edgeOwner = new int[edges.size()];
+        Arrays.fill(edgeOwner, NO_OWNER);
+        this.longest = new int[seats];
+        this.visited = new boolean[nodes.size()];
+        this.inComponent = new boolean[nodes.size()];
+        this.componentNodes = new int[nodes.size()];
+        this.reachedEpoch = new int[nodes.size()];
+        this.disc = new int[nodes.size()];
+        this.low = new int[nodes.size()];
+        this.downFrom = new int[nodes.size()];
+        this.vertexStack = new int[nodes.size()];
+        // Fixed SplitMix64 sequence: region hashes only need to be distinct, not secret.
+        this.nodeKey = new long[nodes.size()];
+        long x = 0x5DEECE66DL;
+        for (int n = 0; n < nodeKey.length; n++) {
+            x += 0x9E3779B97F4A7C15L;
+            long z = x;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            nodeKey[n] = z ^ (z >>> 31);
+        }
+    }
+
+    /**
+     * Records a new road and re-evaluates only the owner's component containing it.
+     * @param edge	ID of the edge the road was built on.
+     * @param seat	Seat index of the road's owner.
+     * @return the seat's longest road after the build
+     */
+    public int onRoadPlaced(int edge, int seat) {
+        edgeOwner[edge] = seat;
+        // Only a path longer than the cached value matters, which lets the search prune from the start.
+        longest[seat] = longestInComponent(edgeNodeA[edge], seat, longest[seat]);
+        return longest[seat];
+    }
+
+    /**
+     * Takes a road back and resets the owner's cached length to its value
+     * before the road was placed (used to undo a build, so no search is needed).
+     */
+    void removeRoad(int edge, int seat, int previousLongest) {
+        edgeOwner[edge] = NO_OWNER;
+        longest[seat] = previousLongest;
+    }
+
+    /** Forgets every road and cached length. */
+    void clear() {
+        Arrays.fill(edgeOwner, NO_OWNER);
+        Arrays.fill(longest, 0);
+    }
+
+    /**
+     * Restores one road and a seat's cached length without searching, so a
+     * restored game keeps exactly the values the original had computed.
+     */
+    void restoreRoad(int edge, int seat) {
+        edgeOwner[edge] = seat;
+    }
+
+    void restoreLongestRoad(int seat, int length) {
+        longest[seat] = length;
+    }
+
+    /** Cached longest road of a seat. */
+    public int getLongestRoad(int seat) {
+        return longest[seat];
+    }
+
+    /**
+     * Full recomputation over all of a seat's components, ignoring the cache.
+     * Kept for verification and benchmarking of the incremental path.
+     */
+    public int computeLongestRoadLength(int seat) {
+        boolean[] searched = new boolean[visited.length];
+        int best = 0;
+        for (int e = 0; e < edgeOwner.length; e++) {
+            if (edgeOwner[e] != seat || searched[edgeNodeA[e]]) continue;
+            best = longestInComponent(edgeNodeA[e], seat, best);
+            for (int i = 0; i < componentSize; i++) {
+                searched[componentNodes[i]] = true;
+            }
+        }
+        return best;
+    }
+
+    private void startEvaluation() {
+        memo = MEMO.get();
+        memo.start();
+    }
+
+    /**
+     * Longest node-simple path in the seat's road component that contains the start node,
+     * or atLeast if no path in the component is longer.
+     */
+    private int longestInComponent(int startNode, int seat, int atLeast) {
+        collectComponent(startNode, seat);
+        // No simple path can use more edges than the component has, nor visit more nodes than it holds.
+        bound = Math.min(componentEdges, componentSize - 1);
+        best = atLeast;
+        startEvaluation();
+        // Long paths usually end at dead ends, so try those first to raise the pruning bar early.
+        for (int pass = 0; pass < 2 && best < bound; pass++) {
+            for (int i = 0; i < componentSize && best < bound; i++) {
+                int node = componentNodes[i];
+                if ((degree(node, seat) == 1) == (pass == 0)) search(node, seat, 0);
+            }
+        }
+        clearComponent();
+        return best;
+    }
+
+    private int degree(int node, int seat) {
+        int d = 0;
+        for (int e : nodeEdges[node]) {
+            if (edgeOwner[e] == seat) d++;
+        }
+        return d;
+    }
+
+    /** Fills componentNodes with every node reachable from start over the seat's roads. */
+    private void collectComponent(int start, int seat) {
+        componentSize = 0;
+        componentEdges = 0;
+        componentNodes[componentSize++] = start;
+        inComponent[start] = true;
+        for (int head = 0; head < componentSize; head++) {
+            int node = componentNodes[head];
+            for (int e : nodeEdges[node]) {
+                if (edgeOwner[e] != seat) continue;
+                int next = edgeNodeA[e] == node ? edgeNodeB[e] : edgeNodeA[e];
+                if (node < next) componentEdges++; // count each edge once
+                if (!inComponent[next]) {
+                    inComponent[next] = true;
+                    componentNodes[componentSize++] = next;
+                }
+            }
+        }
+    }
+
+    private void clearComponent() {
+        for (int i = 0; i < componentSize; i++) {
+            inComponent[componentNodes[i]] = false;
+        }
+    }
+
+    /**
+     * Branch-and-bound depth-first search for simple paths from node. A branch is cut
+     * when even the best conceivable continuation could not beat the best path found.
+     * Different path prefixes often leave the same end node and the same reachable region,
+     * so the bound proven for each (end node, region) pair is remembered for this evaluation.
+     */
+    private void search(int node, int seat, int depth) {
+        if (depth > best) best = depth;
+        if (best >= bound) return;
+        int remaining = remainingBound(node, seat);
+        long key = regionHash ^ Long.rotateLeft(nodeKey[node], 17);
+        int slot = memoLookup(key);
+        if (slot >= 0) remaining = Math.min(remaining, memo.bound[slot]);
+        if (depth + remaining <= best) return;
+        visited[node] = true;
+        for (int e : nodeEdges[node]) {
+            if (edgeOwner[e] != seat) continue;
+            int next = edgeNodeA[e] == node ? edgeNodeB[e] : edgeNodeA[e];
+            if (!visited[next]) {
+                search(next, seat, depth + 1);
+                if (best >= bound) break;
+            }
+        }
+        visited[node] = false;
+        // Every continuation from here has been explored or cut, so none of them beats best.
+        memoStore(key, best - depth);
+    }
+
+    /** Slot of the key in the memo table for the current evaluation, or -1. */
+    private int memoLookup(long key) {
+        int slot = (int) (key ^ (key >>> 32)) & (MEMO_SIZE - 1);
+        for (int probe = 0; probe < MEMO_PROBES; probe++) {
+            int i = (slot + probe) & (MEMO_SIZE - 1);
+            if (memo.epoch[i] != memo.evaluation) return -1;
+            if (memo.key[i] == key) return i;
+        }
+        return -1;
+    }
+
+    private void memoStore(long key, int remaining) {
+        int slot = (int) (key ^ (key >>> 32)) & (MEMO_SIZE - 1);
+        int target = slot; // table full along the probe run: overwrite the home slot
+        for (int probe = 0; probe < MEMO_PROBES; probe++) {
+            int i = (slot + probe) & (MEMO_SIZE - 1);
+            if (memo.epoch[i] != memo.evaluation || memo.key[i] == key) {
+                target = i;
+                break;
+            }
+        }
+        memo.epoch[target] = memo.evaluation;
+        memo.key[target] = key;
+        memo.bound[target] = remaining;
+    }
+
+    /**
+     * Upper bound on how many more edges a simple path ending at node can gain within the
+     * unvisited part of the network. Once a path crosses a cut vertex into a branch it can
+     * never come back, so it runs through a single chain of biconnected blocks and gains at
+     * most (block size - 1) edges per block. The chain with the largest total is the bound;
+     * on tree-shaped networks it is exact.
+     */
+    private int remainingBound(int node, int seat) {
+        if (++epoch == 0) { // wrapped: reset stamps
+            Arrays.fill(reachedEpoch, 0);
+            epoch = 1;
+        }
+        timer = 0;
+        stackSize = 0;
+        regionHash = 0;
+        blockDfs(node, -1, seat);
+        return downFrom[node];
+    }
+
+    /**
+     * Tarjan's biconnected-components walk. When a block closes below u, every block hanging
+     * further down is already closed, so downFrom (the best chain starting at a vertex and
+     * leading away from the start node) is final for the block's vertices.
+     */
+    private void blockDfs(int u, int parent, int seat) {
+        reachedEpoch[u] = epoch;
+        regionHash ^= nodeKey[u];
+        disc[u] = low[u] = ++timer;
+        downFrom[u] = 0;
+        vertexStack[stackSize++] = u;
+        for (int e : nodeEdges[u]) {
+            if (edgeOwner[e] != seat) continue;
+            int w = edgeNodeA[e] == u ? edgeNodeB[e] : edgeNodeA[e];
+            if (visited[w]) continue;
+            if (reachedEpoch[w] != epoch) {
+                blockDfs(w, u, seat);
+                low[u] = Math.min(low[u], low[w]);
+                if (low[w] >= disc[u]) {
+                    // u is the entry of the block made of the vertices stacked since w
+                    int blockEdges = 0;
+                    int deepest = 0;
+                    int x;
+                    do {
+                        x = vertexStack[--stackSize];
+                        blockEdges++;
+                        deepest = Math.max(deepest, downFrom[x]);
+                    } while (x != w);
+                    downFrom[u] = Math.max(downFrom[u], blockEdges + deepest);
+                }
+            } else if (w != parent) {
+                low[u] = Math.min(low[u], disc[w]);
+            }
+        }
+    }
+
+    /** Bounds proven during the current evaluation; entries from older evaluations are ignored via the epoch stamp. */
+    private static final class Memo {
+        final long[] key = new long[MEMO_SIZE];
+        final int[] bound = new int[MEMO_SIZE];
+        final int[] epoch = new int[MEMO_SIZE];
+        int evaluation;
+
+        void start() {
+            if (++evaluation == 0) { // wrapped: reset stamps
+                Arrays.fill(epoch, 0);
+                evaluation = 1;
+            }
+        }
+    }
+}
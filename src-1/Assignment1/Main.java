@@ -1,7 +1,9 @@
 package Assignment1;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 /**
  * The Main class serves as the entry point for the Catan simulator.
@@ -9,57 +11,229 @@ import java.util.List;
  * to the GamePlay controller to run the simulation.
  */
 public class Main {
-    
+
     /**
      * Entry point of the application.
-     * @param args Command line arguments (not used).
+     * @param args Command line arguments: none for a single verbose game,
+     *             {@code game <seed>} to replay one game from its seed,
+     *             {@code batch <games> [masterSeed [traceFile|- [resultsFile]]]} to run many quiet games in
+     *             parallel (optionally recording them and their results), {@code results <resultsFile>} to
+     *             summarise a results file, {@code replay <traceFile>} to verify a recorded batch, or
+     *             {@code scale <radius> <agents> <games> [masterSeed [maxRounds]]} to run a batch on a generated hex map,
+     *             {@code server [port]} to serve simulation jobs over local HTTP (see SimulationServer), or
+     *             {@code tournament <gamesPerPolicy> [masterSeed [maxRounds]]} to rank the built-in build policies,
+     *             {@code mcts <gamesPerPolicy> [masterSeed [moveMillis [maxRounds]]]} to match a search agent
+     *             against random builds (moveMillis 0 for a fixed number of playouts per decision), {@code lockstep <games> [masterSeed [maxRounds [lanes]]]} to play a
+     *             batch on one core with the lockstep engine, {@code income [nodes]} to rank the settlement
+     *             spots of the standard map by their exact expected income,
+     *             {@code study <halfWidth> [masterSeed [maxRounds]]} to estimate the win rates and game length to a
+     *             precision, or {@code compare <policyA> <policyB> <margin> [masterSeed [maxRounds]]} to play games
+     *             until it is settled whether the first seat wins more often with one build policy than another.
      */
-    public static void main(String[] args) {
-        // 1. Initialize the Dice
-        // Using the Composite Pattern via MultiDice to hold two 6-sided dice.
-        MultiDice gameDice = new MultiDice();
-        gameDice.addDice(new RegularDice(6));
-        gameDice.addDice(new RegularDice(6));
-
-        // 2. Initialize the 4 Agents (Requirement R1.2)
-        List<Agent> agents = new ArrayList<>();
-        agents.add(new Agent(0, "Agent_Alpha"));
-        agents.add(new Agent(0, "Agent_Beta"));
-        agents.add(new Agent(0, "Agent_Gamma"));
-        agents.add(new Agent(0, "Agent_Delta"));
-
-        // 3. Setup the Board (Requirement R1.1) – 19 tiles, 54 nodes, 72 edges per spec
-        Board catanBoard = MapSetup.createBoard();
-
-        // 4. Place one initial settlement per agent (distance ≥ 2 between players)
-        // Nodes 0, 15, 28, 43 are pairwise non-adjacent so they satisfy the distance rule.
-        catanBoard.placeSettlement(catanBoard.getNode(0), new Settlement(agents.get(0), catanBoard.getNode(0)));
-        agents.get(0).addVictoryPoints(1);
-        catanBoard.placeSettlement(catanBoard.getNode(15), new Settlement(agents.get(1), catanBoard.getNode(15)));
-        agents.get(1).addVictoryPoints(1);
-        catanBoard.placeSettlement(catanBoard.getNode(28), new Settlement(agents.get(2), catanBoard.getNode(28)));
-        agents.get(2).addVictoryPoints(1);
-        catanBoard.placeSettlement(catanBoard.getNode(43), new Settlement(agents.get(3), catanBoard.getNode(43)));
-        agents.get(3).addVictoryPoints(1);
-        // Give each agent a small starting hand so they can build once they exceed 7 cards (avoids being stuck with only one resource type)
-        for (Agent a : agents) {
-            a.addResource(Resources.LUMBER);
-            a.addResource(Resources.BRICK);
-            a.addResource(Resources.WHEAT);
-            a.addResource(Resources.WOOL);
+    public static void main(String[] args) throws IOException {
+        int maxRounds = 8192;
+
+        if (args.length >= 2 && args[0].equals("replay")) {
+            long start = System.nanoTime();
+            try (TraceReader reader = new TraceReader(Paths.get(args[1]))) {
+                int games = TraceReplayer.replayAll(reader);
+                System.out.println("Replayed and verified " + games + " games from " + args[1]);
+            }
+            System.out.printf("Elapsed: %.2f s%n", (System.nanoTime() - start) / 1e9);
+            return;
         }
-        System.out.println("Initial settlements placed (nodes 0, 15, 28, 43).");
 
-        // 5. Initialize the GamePlay Controller
-        int maxRounds = 8192;
-        GamePlay controller = new GamePlay(agents, catanBoard, gameDice, maxRounds);
+        if (args.length >= 2 && args[0].equals("results")) {
+            try (ResultsReader reader = new ResultsReader(Paths.get(args[1]))) {
+                BatchResult result = new BatchResult(reader.getSeats());
+                reader.forEach((game, index) -> result.add(game));
+                System.out.println(result);
+            }
+            return;
+        }
+
+        if (args.length >= 1 && args[0].equals("server")) {
+            int port = args.length >= 2 ? Integer.parseInt(args[1]) : SimulationServer.DEFAULT_PORT;
+            SimulationServer server = new SimulationServer(port, Runtime.getRuntime().availableProcessors());
+            server.getMetrics().register(EngineMetrics.DEFAULT_NAME);
+            server.start();
+            System.out.println("--- Simulation server listening on http://localhost:" + server.getPort() + "/simulate ---");
+            return;
+        }
+
+        if (args.length >= 2 && args[0].equals("tournament")) {
+            int gamesPerPolicy = Integer.parseInt(args[1]);
+            long masterSeed = args.length >= 3 ? Long.parseLong(args[2]) : new GameRandom().nextLong();
+            int rounds = args.length >= 4 ? Integer.parseInt(args[3]) : maxRounds;
+            System.out.println("--- Tournament of " + BuildPolicies.values().length + " build policies (master seed "
+                + masterSeed + ") ---");
+            long start = System.nanoTime();
+            Tournament tournament = new Tournament(Arrays.asList(BuildPolicies.values()), rounds, masterSeed,
+                Runtime.getRuntime().availableProcessors());
+            for (Tournament.Standing standing : tournament.run(gamesPerPolicy)) {
+                System.out.println(standing);
+            }
+            System.out.println("Games played: " + tournament.getGamesPlayed());
+            System.out.printf("Elapsed: %.2f s%n", (System.nanoTime() - start) / 1e9);
+            return;
+        }
+
+        if (args.length >= 2 && args[0].equals("mcts")) {
+            int gamesPerPolicy = Integer.parseInt(args[1]);
+            long masterSeed = args.length >= 3 ? Long.parseLong(args[2]) : new GameRandom().nextLong();
+            long moveMillis = args.length >= 4 ? Long.parseLong(args[3]) : 100L;
+            int rounds = args.length >= 5 ? Integer.parseInt(args[4]) : maxRounds;
+            // Games run one at a time so every core goes to the search; without a time budget the playouts end it.
+            int maxPlayouts = moveMillis == 0 ? MctsPolicy.DEFAULT_PLAYOUTS : Integer.MAX_VALUE;
+            MctsPolicy mcts = new MctsPolicy(Runtime.getRuntime().availableProcessors(), moveMillis, maxPlayouts);
+            mcts.setTranspositionTable(new TranspositionTable(64));
+            System.out.println("--- " + mcts + " against " + BuildPolicies.RANDOM + " (master seed " + masterSeed + ") ---");
+            long start = System.nanoTime();
+            Tournament tournament = new Tournament(Arrays.asList(mcts, BuildPolicies.RANDOM), rounds, masterSeed, 1);
+            for (Tournament.Standing standing : tournament.run(gamesPerPolicy)) {
+                System.out.println(standing);
+            }
+            mcts.shutdown();
+            System.out.println("Games played: " + tournament.getGamesPlayed());
+            System.out.printf("Elapsed: %.2f s%n", (System.nanoTime() - start) / 1e9);
+            return;
+        }
+
+        if (args.length >= 2 && args[0].equals("study")) {
+            double halfWidth = Double.parseDouble(args[1]);
+            long masterSeed = args.length >= 3 ? Long.parseLong(args[2]) : new GameRandom().nextLong();
+            int rounds = args.length >= 4 ? Integer.parseInt(args[3]) : maxRounds;
+            System.out.println("--- Estimating win rates to +/- " + halfWidth + " and game length to +/- " + 100 * halfWidth
+                + "% (master seed " + masterSeed + ") ---");
+            long start = System.nanoTime();
+            SequentialStudy study = new SequentialStudy(masterSeed, Runtime.getRuntime().availableProcessors());
+            System.out.println(study.estimate((index, seed) -> GameFactory.createStandardGame(rounds, seed), halfWidth, halfWidth));
+            System.out.printf("Elapsed: %.2f s%n", (System.nanoTime() - start) / 1e9);
+            return;
+        }
 
-        // 6. Run the Simulation
-        System.out.println("--- Starting Catan Simulation ---");
+        if (args.length >= 4 && args[0].equals("compare")) {
+            BuildPolicy first = BuildPolicies.valueOf(args[1]);
+            BuildPolicy second = BuildPolicies.valueOf(args[2]);
+            double margin = Double.parseDouble(args[3]);
+            long masterSeed = args.length >= 5 ? Long.parseLong(args[4]) : new GameRandom().nextLong();
+            int rounds = args.length >= 6 ? Integer.parseInt(args[5]) : maxRounds;
+            System.out.println("--- Seat 0 win rate with " + first + " against " + second + ", margin " + margin
+                + " (master seed " + masterSeed + ") ---");
+            long start = System.nanoTime();
+            SequentialStudy study = new SequentialStudy(masterSeed, Runtime.getRuntime().availableProcessors());
+            System.out.println(study.compare(seatZeroPlays(first, rounds), seatZeroPlays(second, rounds),
+                SequentialStudy.wins(0), margin));
+            System.out.printf("Elapsed: %.2f s%n", (System.nanoTime() - start) / 1e9);
+            return;
+        }
+
+        if (args.length >= 1 && args[0].equals("income")) {
+            IncomeCalculator calculator = IncomeCalculator.standard();
+            int[] ranked = calculator.rankNodes();
+            int shown = args.length >= 2 ? Math.min(Integer.parseInt(args[1]), ranked.length) : 10;
+            System.out.println("--- Best " + shown + " of " + ranked.length + " settlement spots by expected income ---");
+            System.out.println(" node  cards/turn  types  turns to settlement / city / road (from an empty hand)");
+            for (int i = 0; i < shown; i++) {
+                IncomeCalculator.Income income = calculator.ofNode(ranked[i]);
+                System.out.printf("%5d  %10.3f  %5d  %8.1f / %.1f / %.1f%n", ranked[i], income.getExpectedCards(),
+                    income.getResourceTypes(), income.getExpectedTurnsToAfford(IncomeCalculator.Build.SETTLEMENT),
+                    income.getExpectedTurnsToAfford(IncomeCalculator.Build.CITY),
+                    income.getExpectedTurnsToAfford(IncomeCalculator.Build.ROAD));
+            }
+            return;
+        }
+
+        if (args.length >= 2 && args[0].equals("lockstep")) {
+            int games = Integer.parseInt(args[1]);
+            long masterSeed = args.length >= 3 ? Long.parseLong(args[2]) : new GameRandom().nextLong();
+            int rounds = args.length >= 4 ? Integer.parseInt(args[3]) : maxRounds;
+            int lanes = args.length >= 5 ? Integer.parseInt(args[4]) : LockstepEngine.DEFAULT_LANES;
+            System.out.println("--- Running " + games + " games in lockstep, " + lanes + " at a time (master seed "
+                + masterSeed + ") ---");
+            long start = System.nanoTime();
+            System.out.println(LockstepEngine.standard(rounds, lanes).run(games, masterSeed));
+            System.out.printf("Elapsed: %.2f s%n", (System.nanoTime() - start) / 1e9);
+            return;
+        }
+
+        if (args.length >= 4 && args[0].equals("scale")) {
+            int radius = Integer.parseInt(args[1]);
+            int agents = Integer.parseInt(args[2]);
+            int games = Integer.parseInt(args[3]);
+            long masterSeed = args.length >= 5 ? Long.parseLong(args[4]) : new GameRandom().nextLong();
+            int rounds = args.length >= 6 ? Integer.parseInt(args[5]) : maxRounds;
+            BoardTopology topology = HexMapGenerator.generate(radius, masterSeed);
+            System.out.println("--- Running " + games + " games with " + agents + " agents on a radius " + radius + " map ("
+                + topology.getTiles().size() + " tiles, " + topology.getNodeCount() + " nodes, " + topology.getEdgeCount()
+                + " edges; master seed " + masterSeed + ") ---");
+            long start = System.nanoTime();
+            EngineMetrics metrics = new EngineMetrics().register(EngineMetrics.DEFAULT_NAME);
+            BatchRunner runner = new BatchRunner(seed -> GameFactory.createGame(topology, agents, rounds, seed),
+                masterSeed, Runtime.getRuntime().availableProcessors());
+            runner.setMetrics(metrics);
+            System.out.println(runner.run(games));
+            System.out.println(metrics);
+            System.out.printf("Elapsed: %.2f s%n", (System.nanoTime() - start) / 1e9);
+            return;
+        }
+
+        if (args.length >= 2 && args[0].equals("batch")) {
+            int games = Integer.parseInt(args[1]);
+            long masterSeed = args.length >= 3 ? Long.parseLong(args[2]) : new GameRandom().nextLong();
+            System.out.println("--- Running " + games + " games on " + Runtime.getRuntime().availableProcessors()
+                + " cores (master seed " + masterSeed + ") ---");
+            long start = System.nanoTime();
+            EngineMetrics metrics = new EngineMetrics().register(EngineMetrics.DEFAULT_NAME);
+            BatchRunner runner = new BatchRunner(maxRounds, masterSeed);
+            runner.setMetrics(metrics);
+            TraceWriter traces = null;
+            if (args.length >= 4 && !args[3].equals("-")) {
+                traces = new TraceWriter(Paths.get(args[3]), MapSetup.standardTopology(), GameFactory.AGENT_NAMES.length);
+                runner.setTraceWriter(traces);
+            }
+            ResultsWriter results = null;
+            if (args.length >= 5) {
+                results = new ResultsWriter(Paths.get(args[4]), GameFactory.AGENT_NAMES.length);
+                runner.setResultListener(results::write);
+            }
+            BatchResult result = runner.run(games);
+            if (traces != null) {
+                traces.close();
+                System.out.println("Trace written to " + args[3] + " (" + Files.size(Paths.get(args[3])) + " bytes)");
+            }
+            if (results != null) {
+                results.close();
+                System.out.println("Results written to " + args[4] + " (" + Files.size(Paths.get(args[4])) + " bytes)");
+            }
+            System.out.println(result);
+            System.out.println(metrics);
+            System.out.printf("Elapsed: %.2f s%n", (System.nanoTime() - start) / 1e9);
+            return;
+        }
+
+        // 1-4. Dice (MultiDice with two 6-sided dice), 4 agents (R1.2), the board (R1.1)
+        // and one initial settlement per agent (distance >= 2 between players)
+        long seed = args.length >= 2 && args[0].equals("game") ? Long.parseLong(args[1]) : new GameRandom().nextLong();
+        GamePlay controller = GameFactory.createStandardGame(maxRounds, seed);
+        controller.setListener(new TextGameListener(System.out));
+        System.out.println("Initial settlements placed (nodes 0, 15, 28, 43).");
+
+        // 5. Run the Simulation
+        System.out.println("--- Starting Catan Simulation (seed " + seed + ") ---");
         controller.runSimulation();
 
-        // 7. Final Status Output
+        // 6. Final Status Output
         System.out.println("--- Simulation Complete ---");
         System.out.println("Total Turns Elapsed: " + controller.getTurnNumber());
     }
+
+    /** Standard games in which the first seat builds with the policy and the others at random. */
+    private static BatchRunner.IndexedGameFactory seatZeroPlays(BuildPolicy policy, int maxRounds) {
+        return (index, seed) -> {
+            GamePlay game = GameFactory.createStandardGame(maxRounds, seed);
+            game.getAgents().get(0).setBuildPolicy(policy);
+            return game;
+        };
+    }
 }//ends class main
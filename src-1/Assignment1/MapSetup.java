@@ -5,7 +5,7 @@ import java.util.*;
 /**
  * Hard-wired Catan map setup per specification (R1.1).
  * Tiles: 0 = center, 1-6 = inner ring, 7-18 = outer ring.
- * 19 tiles, 54 nodes (0-53), 72 edges.
+ * 19 tiles, 54 nodes (0-53); edges are derived from the tile sides.
  * Resource and number token layout from the provided board specification.
  */
 public class MapSetup {
@@ -45,11 +45,29 @@ public class MapSetup {
         3, 6, 4, 3, 9, 5, 9, 8, 4, 0, 2, 10
     };
 
+    /** Shape of the standard map, built once and shared by every game. */
+    private static final BoardTopology STANDARD_TOPOLOGY = buildTopology();
+
+    /** The shared, read-only topology of the standard map. */
+    public static BoardTopology standardTopology() {
+        return STANDARD_TOPOLOGY;
+    }
+
     /**
-     * Builds the full board: 54 nodes, 72 edges, 19 tiles.
-     * Node and tile identification follow the specification.
+     * Creates an empty board for one game on the shared standard topology.
+     * Only the per-game ownership state is allocated.
      */
     public static Board createBoard() {
+        return new Board(STANDARD_TOPOLOGY);
+    }
+
+    /**
+     * Builds the full map: 54 nodes, the edges around all 19 tiles, 19 tiles.
+     * Node and tile identification follow the specification. Edges are numbered
+     * in the order they are first met walking the tiles and their sides in
+     * order, so edge IDs are the same on every run and every JVM.
+     */
+    private static BoardTopology buildTopology() {
         int numNodes = 54;
         int numTiles = 19;
 
@@ -58,47 +76,32 @@ public class MapSetup {
             nodes.add(new Node(i));
         }
 
-        // Build unique edges from tile definitions: each tile gives 6 edges (node[i], node[i+1 mod 6])
-        Set<AbstractMap.SimpleEntry<Integer, Integer>> edgeSet = new HashSet<>();
-        for (int t = 0; t < numTiles; t++) {
-            int[] n = TILE_NODES[t];
-            for (int i = 0; i < 6; i++) {
-                int a = n[i];
-                int b = n[(i + 1) % 6];
-                edgeSet.add(new AbstractMap.SimpleEntry<>(Math.min(a, b), Math.max(a, b)));
-            }
-        }
-
+        // Unique edges from tile definitions: each tile gives 6 edges (node[i], node[i+1 mod 6]).
+        // edgeIdByPair[min * numNodes + max] is the ID of the edge between two nodes, or -1.
+        int[] edgeIdByPair = new int[numNodes * numNodes];
+        Arrays.fill(edgeIdByPair, -1);
         List<Edge> edges = new ArrayList<>();
-        Map<String, Edge> edgeByPair = new HashMap<>();
-        for (AbstractMap.SimpleEntry<Integer, Integer> p : edgeSet) {
-            int a = p.getKey();
-            int b = p.getValue();
-            Node na = nodes.get(a);
-            Node nb = nodes.get(b);
-            Edge e = new Edge(na, nb);
-            edges.add(e);
-            edgeByPair.put(a + "," + b, e);
-            na.addEdge(e);
-            nb.addEdge(e);
-        }
-
-        // Build tiles with their edges (each tile's 6 edges in order)
         List<Tile> tiles = new ArrayList<>();
         for (int t = 0; t < numTiles; t++) {
             int[] n = TILE_NODES[t];
             List<Edge> tileEdges = new ArrayList<>();
             for (int i = 0; i < 6; i++) {
-                int a = n[i];
-                int b = n[(i + 1) % 6];
-                String key = Math.min(a, b) + "," + Math.max(a, b);
-                Edge e = edgeByPair.get(key);
-                if (e != null) tileEdges.add(e);
+                int a = Math.min(n[i], n[(i + 1) % 6]);
+                int b = Math.max(n[i], n[(i + 1) % 6]);
+                int pair = a * numNodes + b;
+                if (edgeIdByPair[pair] < 0) {
+                    Node na = nodes.get(a);
+                    Node nb = nodes.get(b);
+                    Edge e = new Edge(edges.size(), na, nb);
+                    edgeIdByPair[pair] = e.getEdgeNum();
+                    edges.add(e);
+                    na.addEdge(e);
+                    nb.addEdge(e);
+                }
+                tileEdges.add(edges.get(edgeIdByPair[pair]));
             }
-            Tile tile = new Tile(TILE_RESOURCES[t], TILE_NUMBERS[t], t, tileEdges);
-            tiles.add(tile);
+            tiles.add(new Tile(TILE_RESOURCES[t], TILE_NUMBERS[t], t, tileEdges));
         }
-
-        return new Board(tiles, edges, nodes);
+        return new BoardTopology(tiles, edges, nodes);
     }
 }
@@ -0,0 +1,224 @@
+package Assignment1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo search over the builds available on a turn, parallelised by
+ * root parallelisation.
+ *
+ * Every worker forks the game once and then runs playouts on its fork: it
+ * picks a build with the UCB1 rule, makes it, plays the following turns with
+ * the rollout policy up to the horizon (or the end of the game), scores the
+ * result for the searching seat and takes everything back with the fork's
+ * undo stack. Dice and discards make the game below a build a chance node,
+ * so the search tree is the root and its builds; the playouts do the rest.
+ * Workers share nothing while searching. When every worker has finished,
+ * their visit counts and reward sums are added up and the most visited build
+ * is chosen.
+ *
+ * A playout scores 1 if the seat wins, 0 if another seat wins, and otherwise
+ * the seat's VPs over 10. The search stops at the per-move time budget or
+ * after the playout limit per worker, whichever comes first; with no time
+ * budget the search, seeded from the game's random state, chooses the same
+ * build every time. It never draws from the game's own random source.
+ *
+ * With a transposition table set, each decision is stored under the
+ * position's Zobrist hash, and a position met again (in this or any other
+ * game sharing the table) reuses the stored build instead of searching.
+ * Every game the policy plays in starts a new table generation, so when a
+ * bucket is full the entries of older games make way first.
+ */
+public class MctsPolicy implements BuildPolicy {
+
+    /** Default number of turns a playout looks ahead. */
+    public static final int DEFAULT_HORIZON = 200;
+
+    /** Playouts per worker per decision when there is no time budget to end the search. */
+    public static final int DEFAULT_PLAYOUTS = 1000;
+
+    private static final double EXPLORATION = Math.sqrt(2.0);
+
+    private final ForkJoinPool pool;
+    private final int workers;
+    private final long moveNanos;
+    private final int maxPlayouts;
+    private int horizon = DEFAULT_HORIZON;
+    private BuildPolicy rolloutPolicy = BuildPolicies.RANDOM;
+    private TranspositionTable table;
+    /** Game of the last decision; a different one starts a new table generation. */
+    private GamePlay lastGame;
+
+    /**
+     * @param workers		Searches run in parallel per decision (each on its own thread).
+     * @param moveMillis	Time budget per decision in milliseconds, 0 for none.
+     * @param maxPlayouts	Playouts per worker per decision.
+     */
+    public MctsPolicy(int workers, long moveMillis, int maxPlayouts) {
+        if (workers < 1) throw new IllegalArgumentException("workers must be at least 1");
+        if (moveMillis < 0 || maxPlayouts < 1) throw new IllegalArgumentException("invalid search budget");
+        this.pool = new ForkJoinPool(workers);
+        this.workers = workers;
+        this.moveNanos = moveMillis * 1_000_000L;
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    /** Sets how many turns a playout plays after the build before it is scored. */
+    public void setHorizon(int turns) {
+        if (turns < 0) throw new IllegalArgumentException("horizon must not be negative");
+        this.horizon = turns;
+    }
+
+    /** Sets the policy every agent follows during playouts (RANDOM by default). */
+    public void setRolloutPolicy(BuildPolicy rolloutPolicy) {
+        this.rolloutPolicy = rolloutPolicy;
+    }
+
+    /** Sets the table decisions are cached in (null for none); it may be shared with other policies. */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /** Stops the worker threads; the policy cannot be used afterwards. */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public int chooseBuild(GamePlay game, int seat, int settlements, int cities, int roads) {
+        int total = settlements + cities + roads;
+        if (total == 1) return 0;
+        long hash = 0L;
+        if (table != null) {
+            if (game != lastGame) {
+                lastGame = game;
+                table.newGeneration();
+            }
+            hash = game.getHash();
+            long entry = table.probe(hash);
+            // The range check guards against the rare hash collision with another position.
+            if (entry != TranspositionTable.NOT_FOUND && TranspositionTable.value(entry) < total) {
+                return TranspositionTable.value(entry);
+            }
+        }
+        long deadline = moveNanos == 0 ? 0 : System.nanoTime() + moveNanos;
+        long seed = game.getRandom().getState() ^ ((long) seat << 32) ^ game.getTurnNumber();
+        List<Callable<Statistics>> searches = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            GamePlay fork = game.fork();
+            GameRandom random = new GameRandom(GameRandom.seedForGame(seed, w));
+            searches.add(() -> search(fork, seat, settlements, cities, total, deadline, random));
+        }
+        Statistics merged = new Statistics(total);
+        try {
+            for (Future<Statistics> result : pool.invokeAll(searches)) {
+                merged.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("search failed", e.getCause());
+        }
+        int choice = merged.mostVisited();
+        if (table != null) table.store(hash, choice, (int) Math.min(merged.playouts(), Integer.MAX_VALUE));
+        return choice;
+    }
+
+    /** One worker's playouts on its own fork. */
+    private Statistics search(GamePlay fork, int seat, int settlements, int cities, int total, long deadline,
+            GameRandom random) {
+        Statistics stats = new Statistics(total);
+        for (Agent agent : fork.getAgents()) {
+            agent.setBuildPolicy(rolloutPolicy);
+        }
+        fork.setUndoEnabled(true);
+        Agent agent = fork.getAgents().get(seat);
+        for (int playout = 0; playout < maxPlayouts; playout++) {
+            if (deadline != 0 && playout > 0 && System.nanoTime() >= deadline) break;
+            int choice = stats.select(playout);
+            int mark = fork.mark();
+            fork.getRandom().setState(random.nextLong());
+            fork.build(agent, seat, choice, settlements, cities);
+            fork.endTurn(agent);
+            for (int turn = 0; turn < horizon && !fork.isOver(); turn++) {
+                fork.playTurn();
+            }
+            stats.record(choice, score(fork, agent));
+            fork.undoTo(mark);
+        }
+        return stats;
+    }
+
+    private static double score(GamePlay game, Agent agent) {
+        Agent winner = game.getWinner();
+        if (winner != null) return winner == agent ? 1.0 : 0.0;
+        return agent.getVictoryPoints() / 10.0;
+    }
+
+    @Override
+    public String toString() {
+        return "MCTS(" + workers + "x" + (moveNanos == 0 ? maxPlayouts + " playouts" : moveNanos / 1_000_000L + " ms") + ")";
+    }
+
+    /** Visits and reward sums per build at the root. */
+    private static final class Statistics {
+        final long[] visits;
+        final double[] rewards;
+
+        Statistics(int choices) {
+            this.visits = new long[choices];
+            this.rewards = new double[choices];
+        }
+
+        /** UCB1: every build once in order, then the best upper confidence bound. */
+        int select(int playouts) {
+            if (playouts < visits.length) return playouts;
+            double logTotal = Math.log(playouts);
+            int best = 0;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < visits.length; i++) {
+                double value = rewards[i] / visits[i] + EXPLORATION * Math.sqrt(logTotal / visits[i]);
+                if (value > bestValue) {
+                    best = i;
+                    bestValue = value;
+                }
+            }
+            return best;
+        }
+
+        void record(int choice, double reward) {
+            visits[choice]++;
+            rewards[choice] += reward;
+        }
+
+        void add(Statistics other) {
+            for (int i = 0; i < visits.length; i++) {
+                visits[i] += other.visits[i];
+                rewards[i] += other.rewards[i];
+            }
+        }
+
+        long playouts() {
+            long total = 0;
+            for (long v : visits) total += v;
+            return total;
+        }
+
+        /** Most visited build; ties go to the better mean, then the lower index. */
+        int mostVisited() {
+            int best = 0;
+            for (int i = 1; i < visits.length; i++) {
+                if (visits[i] > visits[best]
+                        || (visits[i] == visits[best] && rewards[i] > rewards[best])) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -27,11 +27,46 @@ public class MultiDice implements Dice {
     public int roll() {
         int total = 0;
 
-        for (Dice d : diceList) {
-            total += d.roll();
+        for (int i = 0, n = diceList.size(); i < n; i++) {
+            total += diceList.get(i).roll();
         }
 
         return total;
     }
+
+    /**
+     * Distribution of the sum: the convolution of the members' distributions.
+     * Null if any member cannot describe its own.
+     */
+    @Override
+    public long[] getWeights() {
+        long[] sum = { 1L };
+        for (Dice d : diceList) {
+            long[] weights = d.getWeights();
+            if (weights == null) return null;
+            long[] next = new long[sum.length + weights.length - 1];
+            for (int a = 0; a < sum.length; a++) {
+                if (sum[a] == 0) continue;
+                for (int b = 0; b < weights.length; b++) {
+                    next[a + b] = Math.addExact(next[a + b], Math.multiplyExact(sum[a], weights[b]));
+                }
+            }
+            sum = next;
+        }
+        return sum;
+    }
+
+    /**
+     * Collapses the composite into a single die with exactly the same
+     * distribution of totals, rolled with one random draw instead of one per
+     * member (see DistributionDice). The members are not used afterwards.
+     * @param random	Source for the collapsed die, normally the one the members share.
+     * @throws IllegalStateException if a member cannot describe its distribution
+     */
+    public Dice collapse(GameRandom random) {
+        long[] weights = getWeights();
+        if (weights == null) throw new IllegalStateException("a member die has no known distribution");
+        return new DistributionDice(weights, random);
+    }
 }
 
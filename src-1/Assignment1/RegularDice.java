@@ -1,19 +1,42 @@
 package Assignment1;
 
-import java.util.Random;
+import java.util.Arrays;
 
 public class RegularDice implements Dice {
-    private static final Random random = new Random();
+    private final GameRandom random;
     private final int sides;
 
-    public RegularDice(int sides) {
+    /**
+     * @param sides  number of faces
+     * @param random the game's random source (shared with the rest of the game)
+     */
+    public RegularDice(int sides, GameRandom random) {
         this.sides = sides;
+        this.random = random;
+    }
+
+    /** Die with its own unseeded random source. */
+    public RegularDice(int sides) {
+        this(sides, new GameRandom());
     }
 
     @Override
     public int roll() {
         return random.nextInt(sides) + 1;
     }
-}
 
+    @Override
+    public void roll(int[] rolls, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            rolls[i] = random.nextInt(sides) + 1;
+        }
+    }
 
+    /** One for each face 1..sides. */
+    @Override
+    public long[] getWeights() {
+        long[] weights = new long[sides + 1];
+        Arrays.fill(weights, 1, sides + 1, 1L);
+        return weights;
+    }
+}
@@ -0,0 +1,106 @@
+package Assignment1;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Reads a results file written by {@link ResultsWriter} block by block.
+ * Only one block is held in memory at a time.
+ */
+public class ResultsReader implements Closeable {
+
+    private final FileChannel channel;
+    private final int seats;
+    private final int blockGames;
+    private final long games;
+    private final ByteBuffer buffer;
+
+    public ResultsReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(ResultsWriter.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(header);
+        if (header.getInt() != ResultsWriter.MAGIC) throw new IOException("not a results file (or unsupported version)");
+        this.seats = header.getInt();
+        this.blockGames = header.getInt();
+        this.games = header.getLong();
+        this.buffer = ByteBuffer.allocateDirect(8 + blockGames * ResultsWriter.rowBytes(seats)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    /** Number of games recorded (0 if the writer was never closed). */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Passes every game with its batch index to the consumer, in file (block)
+     * order rather than game order.
+     * @return the number of games read
+     */
+    public long forEach(ObjIntConsumer<GameResult> consumer) throws IOException {
+        long read = 0;
+        ByteBuffer blockHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        while (true) {
+            blockHeader.clear();
+            if (channel.read(blockHeader) < 0) return read;
+            readFully(blockHeader);
+            if (blockHeader.getInt() != ResultsWriter.BLOCK_MAGIC) throw new IOException("corrupt results block");
+            int rows = blockHeader.getInt();
+            if (rows < 1 || rows > blockGames) throw new IOException("corrupt results block");
+            buffer.clear().limit(rows * ResultsWriter.rowBytes(seats));
+            readFully(buffer);
+            readBlock(rows, consumer);
+            read += rows;
+        }
+    }
+
+    private void readBlock(int rows, ObjIntConsumer<GameResult> consumer) {
+        // Column starts, in the order the writer lays them out.
+        int indexAt = 0;
+        int seedAt = indexAt + 4 * rows;
+        int roundsAt = seedAt + 8 * rows;
+        int turnsAt = roundsAt + 4 * rows;
+        int winnerAt = turnsAt + 4 * rows;
+        int longestRoadAt = winnerAt + rows;
+        int perSeatAt = longestRoadAt + rows;
+        for (int row = 0; row < rows; row++) {
+            int[] vps = new int[seats];
+            int[] settlements = new int[seats];
+            int[] cities = new int[seats];
+            int[] roads = new int[seats];
+            for (int s = 0; s < seats; s++) {
+                int column = perSeatAt + s * 4 * 2 * rows;
+                vps[s] = buffer.getShort(column + 2 * row);
+                settlements[s] = buffer.getShort(column + 2 * rows + 2 * row);
+                cities[s] = buffer.getShort(column + 4 * rows + 2 * row);
+                roads[s] = buffer.getShort(column + 6 * rows + 2 * row);
+            }
+            GameResult result = new GameResult(buffer.getLong(seedAt + 8 * row), buffer.get(winnerAt + row), vps,
+                buffer.getInt(roundsAt + 4 * row), buffer.getInt(turnsAt + 4 * row), buffer.get(longestRoadAt + row),
+                settlements, cities, roads);
+            consumer.accept(result, buffer.getInt(indexAt + 4 * row));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readFully(ByteBuffer target) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) throw new EOFException("results file ends inside a block");
+        }
+        target.flip();
+    }
+}
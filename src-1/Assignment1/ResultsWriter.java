@@ -0,0 +1,162 @@
+package Assignment1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes one record per finished game to a columnar binary file, from any
+ * number of threads without a shared lock. Each thread collects results in
+ * its own block of BLOCK_GAMES rows; a full block reserves its byte range in
+ * the file with one atomic add and is written there with a positional write,
+ * so threads never wait for each other and memory stays at one block per
+ * thread however many games are played.
+ *
+ * File layout (little-endian):
+ * <pre>
+ * header: int magic/version, int seats, int games per block, long total games (set on close)
+ * blocks: int block magic, int rows, then each column for all rows in turn:
+ *   int game index, long seed, int rounds, int turns, byte winner seat (-1 none),
+ *   byte Longest Road seat (-1 none), and per seat: short VPs, short settlements,
+ *   short cities, short roads
+ * </pre>
+ * Blocks appear in the order they filled up, not in game order; the game
+ * index column restores the order. Partly filled blocks are written on close.
+ */
+public class ResultsWriter implements Closeable {
+
+    static final int MAGIC = 0x43525301; // "CRS" + format version 1
+    static final int BLOCK_MAGIC = 0x424C4B31; // "BLK1"
+    static final int HEADER_BYTES = 20;
+    static final int BLOCK_GAMES = 4096;
+
+    private final FileChannel channel;
+    private final int seats;
+    private final AtomicLong nextPosition = new AtomicLong(HEADER_BYTES);
+    private final AtomicLong games = new AtomicLong();
+    /** Every thread's block, so close() can write the partly filled ones. */
+    private final Queue<Block> blocks = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Block> threadBlock = ThreadLocal.withInitial(this::newBlock);
+
+    /**
+     * Creates (or truncates) the file for games with the given number of seats.
+     * @throws IllegalArgumentException if seats is not 1 to 127, the seats a byte column can hold
+     */
+    public ResultsWriter(Path file, int seats) throws IOException {
+        if (seats < 1 || seats > Byte.MAX_VALUE) throw new IllegalArgumentException("seats must be 1 to " + Byte.MAX_VALUE);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+        this.seats = seats;
+        writeHeader(0L);
+    }
+
+    /** Bytes of one row across all columns. */
+    static int rowBytes(int seats) {
+        return 4 + 8 + 4 + 4 + 1 + 1 + seats * 4 * 2;
+    }
+
+    /**
+     * Adds one game; call from the thread that played it (e.g. as a
+     * BatchRunner result listener).
+     */
+    public void write(GameResult result, int index) {
+        if (result.getSeatCount() != seats) throw new IllegalArgumentException("result has the wrong number of seats");
+        Block block = threadBlock.get();
+        block.add(result, index);
+        if (block.rows == BLOCK_GAMES) {
+            try {
+                block.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /** Writes every partly filled block and the game count. No write may be running. */
+    @Override
+    public void close() throws IOException {
+        try {
+            for (Block block : blocks) {
+                block.flush();
+            }
+            writeHeader(games.get());
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeHeader(long totalGames) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(seats).putInt(BLOCK_GAMES).putLong(totalGames).flip();
+        writeFully(header, 0L);
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private Block newBlock() {
+        Block block = new Block();
+        blocks.add(block);
+        return block;
+    }
+
+    /** One thread's rows, column by column, and the buffer they are written through. */
+    private final class Block {
+        final int[] index = new int[BLOCK_GAMES];
+        final long[] seed = new long[BLOCK_GAMES];
+        final int[] rounds = new int[BLOCK_GAMES];
+        final int[] turns = new int[BLOCK_GAMES];
+        final byte[] winner = new byte[BLOCK_GAMES];
+        final byte[] longestRoad = new byte[BLOCK_GAMES];
+        /** Per seat, VPs, settlements, cities and roads: [seat * 4 + column][row]. */
+        final short[][] perSeat = new short[seats * 4][BLOCK_GAMES];
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(8 + BLOCK_GAMES * rowBytes(seats)).order(ByteOrder.LITTLE_ENDIAN);
+        int rows;
+
+        void add(GameResult result, int gameIndex) {
+            int row = rows++;
+            index[row] = gameIndex;
+            seed[row] = result.getSeed();
+            rounds[row] = result.getRounds();
+            turns[row] = result.getTurns();
+            winner[row] = (byte) result.getWinnerSeat();
+            longestRoad[row] = (byte) result.getLongestRoadSeat();
+            for (int s = 0; s < seats; s++) {
+                perSeat[s * 4][row] = (short) result.getVictoryPoints(s);
+                perSeat[s * 4 + 1][row] = (short) result.getSettlements(s);
+                perSeat[s * 4 + 2][row] = (short) result.getCities(s);
+                perSeat[s * 4 + 3][row] = (short) result.getRoads(s);
+            }
+        }
+
+        void flush() throws IOException {
+            if (rows == 0) return;
+            buffer.clear();
+            buffer.putInt(BLOCK_MAGIC).putInt(rows);
+            for (int row = 0; row < rows; row++) buffer.putInt(index[row]);
+            for (int row = 0; row < rows; row++) buffer.putLong(seed[row]);
+            for (int row = 0; row < rows; row++) buffer.putInt(rounds[row]);
+            for (int row = 0; row < rows; row++) buffer.putInt(turns[row]);
+            buffer.put(winner, 0, rows);
+            buffer.put(longestRoad, 0, rows);
+            for (short[] column : perSeat) {
+                for (int row = 0; row < rows; row++) buffer.putShort(column[row]);
+            }
+            buffer.flip();
+            writeFully(buffer, nextPosition.getAndAdd(buffer.remaining()));
+            games.addAndGet(rows);
+            rows = 0;
+        }
+    }
+}
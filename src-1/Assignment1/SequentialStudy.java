@@ -0,0 +1,401 @@
+package Assignment1;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Monte Carlo study that decides while it runs how many games it needs.
+ *
+ * Games are played in blocks in batch order (game i from seed
+ * GameRandom.seedForGame(masterSeed, i), as in BatchRunner), each block at
+ * least a quarter of the games played so far, and after every block the
+ * running estimates are checked against the stopping rule:
+ * <ul>
+ * <li>estimate: stop once every seat's win rate and the mean game length are
+ * known to the requested precision;</li>
+ * <li>compare: play two configurations on the same seeds and stop once the
+ * mean per-game difference of a metric is clearly not zero, or clearly
+ * smaller than a margin that does not matter.</li>
+ * </ul>
+ * Looking after every block would make ordinary confidence intervals too
+ * optimistic, so the k-th look uses error rate alpha * 6 / (pi^2 k^2). These
+ * add up to alpha over all looks, and the interval in effect when the study
+ * stops covers the true value with at least the requested confidence.
+ *
+ * A sample that happens to be constant (every game the same length, or two
+ * policies that agree on every game so far) has no spread to measure, so a
+ * mean's interval is never narrower than z^2 * largest / n, the Wilson bound
+ * for a value as large as the largest seen that has not turned up yet in n
+ * games. For compare the largest difference is taken from the metric's
+ * observed range, so a run of equal games only proves equivalence once there
+ * are enough of them. A sample of nothing but zeros gives no interval at all,
+ * so a metric that has never moved cannot settle a study.
+ */
+public class SequentialStudy {
+
+    /** Games played before the first look. */
+    public static final int MIN_GAMES = 100;
+
+    /** Why a study stopped. */
+    public enum Outcome {
+        /** Every estimate reached the requested precision. */
+        PRECISION_REACHED,
+        /** The difference between the configurations is not zero. */
+        DIFFERENT,
+        /** The difference between the configurations is within the margin. */
+        EQUIVALENT,
+        /** The game limit was hit before the stopping rule was met. */
+        GAME_LIMIT
+    }
+
+    /** Per-game turns, the game length metric of estimate(). */
+    public static final ToDoubleFunction<GameResult> TURNS = GameResult::getTurns;
+
+    /** 1 when the seat won the game, otherwise 0. */
+    public static ToDoubleFunction<GameResult> wins(int seat) {
+        return result -> result.getWinnerSeat() == seat ? 1.0 : 0.0;
+    }
+
+    private final long masterSeed;
+    private final int parallelism;
+    private int blockSize = MIN_GAMES;
+    private int maxGames = 1_000_000;
+    private double confidence = 0.95;
+
+    /**
+     * @param masterSeed	Seed from which every game's seed is derived.
+     * @param parallelism	Number of worker threads.
+     */
+    public SequentialStudy(long masterSeed, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be at least 1");
+        this.masterSeed = masterSeed;
+        this.parallelism = parallelism;
+    }
+
+    /** Fewest games played between two looks (100 by default). */
+    public void setBlockSize(int games) {
+        if (games < 1) throw new IllegalArgumentException("block size must be at least 1");
+        this.blockSize = games;
+    }
+
+    /** Most games a study plays per configuration before it gives up. */
+    public void setMaxGames(int games) {
+        if (games < 1) throw new IllegalArgumentException("game limit must be at least 1");
+        this.maxGames = games;
+    }
+
+    /** Confidence of the final intervals, e.g. 0.95 (the default). */
+    public void setConfidence(double confidence) {
+        if (!(confidence > 0.0 && confidence < 1.0)) throw new IllegalArgumentException("confidence must be in (0, 1)");
+        this.confidence = confidence;
+    }
+
+    /**
+     * Plays games of one configuration until every seat's win rate is known
+     * to within winRateHalfWidth and the mean game length to within the
+     * fraction turnsRelativeHalfWidth of itself.
+     */
+    public Report estimate(BatchRunner.IndexedGameFactory config, double winRateHalfWidth, double turnsRelativeHalfWidth) {
+        BatchRunner runner = new BatchRunner(config, masterSeed, parallelism);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            BatchResult batch = null;
+            Running turns = new Running();
+            int played = 0;
+            for (int look = 1; ; look++) {
+                int to = nextLook(played);
+                int from = played;
+                GameResult[] results = new GameResult[to - from];
+                runner.setResultListener((result, index) -> results[index - from] = result);
+                BatchResult block = runner.run(from, to, pool);
+                if (batch == null) {
+                    batch = block;
+                } else {
+                    batch.merge(block);
+                }
+                for (GameResult result : results) turns.add(TURNS.applyAsDouble(result));
+                played = to;
+
+                double z = z(look);
+                Interval[] winRates = new Interval[batch.getSeats()];
+                boolean precise = turns.halfWidth(z) <= turnsRelativeHalfWidth * Math.abs(turns.mean);
+                for (int seat = 0; seat < winRates.length; seat++) {
+                    winRates[seat] = wilson(batch.getWins(seat), played, z);
+                    precise &= winRates[seat].getHalfWidth() <= winRateHalfWidth;
+                }
+                if (precise || played >= maxGames) {
+                    return new Report(precise ? Outcome.PRECISION_REACHED : Outcome.GAME_LIMIT, played, look, batch, null,
+                        winRates, turns.interval(z), null);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays both configurations on the same seeds until the mean per-game
+     * difference of the metric (first minus second) is settled: its interval
+     * excludes zero, or lies within plus or minus margin.
+     */
+    public Report compare(BatchRunner.IndexedGameFactory first, BatchRunner.IndexedGameFactory second,
+            ToDoubleFunction<GameResult> metric, double margin) {
+        BatchRunner firstRunner = new BatchRunner(first, masterSeed, parallelism);
+        BatchRunner secondRunner = new BatchRunner(second, masterSeed, parallelism);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            BatchResult firstBatch = null;
+            BatchResult secondBatch = null;
+            Running difference = new Running();
+            Running values = new Running();
+            int played = 0;
+            for (int look = 1; ; look++) {
+                int to = nextLook(played);
+                int from = played;
+                GameResult[] firstResults = new GameResult[to - from];
+                GameResult[] secondResults = new GameResult[to - from];
+                firstRunner.setResultListener((result, index) -> firstResults[index - from] = result);
+                secondRunner.setResultListener((result, index) -> secondResults[index - from] = result);
+                BatchResult firstBlock = firstRunner.run(from, to, pool);
+                BatchResult secondBlock = secondRunner.run(from, to, pool);
+                if (firstBatch == null) {
+                    firstBatch = firstBlock;
+                    secondBatch = secondBlock;
+                } else {
+                    firstBatch.merge(firstBlock);
+                    secondBatch.merge(secondBlock);
+                }
+                for (int i = 0; i < firstResults.length; i++) {
+                    double a = metric.applyAsDouble(firstResults[i]);
+                    double b = metric.applyAsDouble(secondResults[i]);
+                    difference.add(a - b);
+                    values.add(a);
+                    values.add(b);
+                }
+                // Any two games could differ by as much as the metric's range.
+                difference.cover(values.high - values.low);
+                played = to;
+
+                Interval interval = difference.interval(z(look));
+                Outcome outcome = null;
+                if (interval.getLow() > 0.0 || interval.getHigh() < 0.0) {
+                    outcome = Outcome.DIFFERENT;
+                } else if (interval.getLow() >= -margin && interval.getHigh() <= margin) {
+                    outcome = Outcome.EQUIVALENT;
+                } else if (played >= maxGames) {
+                    outcome = Outcome.GAME_LIMIT;
+                }
+                if (outcome != null) {
+                    return new Report(outcome, played, look, firstBatch, secondBatch, null, null, interval);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Games played by the next look: the first after MIN_GAMES, then a block
+     * or a quarter more, whichever is larger, so a long study needs few looks.
+     */
+    private int nextLook(int played) {
+        long to = played == 0 ? Math.max(MIN_GAMES, blockSize) : played + Math.max(blockSize, played / 4L);
+        return (int) Math.min(to, maxGames);
+    }
+
+    /** Two-sided normal quantile for the k-th look's share of the error rate. */
+    private double z(int look) {
+        double alpha = (1.0 - confidence) * 6.0 / (Math.PI * Math.PI * look * look);
+        return normalQuantile(1.0 - alpha / 2.0);
+    }
+
+    /** Wilson score interval for a proportion; stays sensible for win rates near 0 or 1. */
+    private static Interval wilson(long successes, long trials, double z) {
+        double p = (double) successes / trials;
+        double z2 = z * z;
+        double centre = (p + z2 / (2 * trials)) / (1 + z2 / trials);
+        double half = z / (1 + z2 / trials) * Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials * trials));
+        // The exact bounds stay in [0, 1]; clamp away rounding such as -0.0000 for p = 0.
+        return new Interval(p, Math.max(0.0, centre - half), Math.min(1.0, centre + half));
+    }
+
+    /**
+     * Inverse of the standard normal distribution function, by Acklam's
+     * rational approximation (relative error below 1.2e-9).
+     */
+    static double normalQuantile(double p) {
+        if (!(p > 0.0 && p < 1.0)) throw new IllegalArgumentException("p must be in (0, 1)");
+        final double[] a = { -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00 };
+        final double[] b = { -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+            6.680131188771972e+01, -1.328068155288572e+01 };
+        final double[] c = { -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+            -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00 };
+        final double[] d = { 7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+            3.754408661907416e+00 };
+        double low = 0.02425;
+        if (p < low || p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(p < low ? p : 1 - p));
+            double x = (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+            return p < low ? x : -x;
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+            / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    /** Running mean and variance (Welford). */
+    private static final class Running {
+        long count;
+        double mean;
+        double squares;
+        /** Largest magnitude a value has had or could have. */
+        double largest;
+        double low = Double.POSITIVE_INFINITY;
+        double high = Double.NEGATIVE_INFINITY;
+
+        void add(double x) {
+            count++;
+            low = Math.min(low, x);
+            high = Math.max(high, x);
+            largest = Math.max(largest, Math.abs(x));
+            double delta = x - mean;
+            mean += delta / count;
+            squares += delta * (x - mean);
+        }
+
+        /** Counts a value of the given magnitude as possible for the variance floor. */
+        void cover(double magnitude) {
+            largest = Math.max(largest, magnitude);
+        }
+
+        /** Half-width of the mean's interval, at least z^2 * largest / count. */
+        double halfWidth(double z) {
+            if (count < 2 || largest == 0.0) return Double.POSITIVE_INFINITY;
+            double floor = z * largest;
+            double variance = Math.max(squares / (count - 1), floor * floor / count);
+            return z * Math.sqrt(variance / count);
+        }
+
+        Interval interval(double z) {
+            double half = halfWidth(z);
+            return new Interval(mean, mean - half, mean + half);
+        }
+    }
+
+    /** An estimate with the bounds of its confidence interval. */
+    public static final class Interval {
+        private final double estimate;
+        private final double low;
+        private final double high;
+
+        Interval(double estimate, double low, double high) {
+            this.estimate = estimate;
+            this.low = low;
+            this.high = high;
+        }
+
+        public double getEstimate() {
+            return estimate;
+        }
+
+        public double getLow() {
+            return low;
+        }
+
+        public double getHigh() {
+            return high;
+        }
+
+        /** Half the interval's width. */
+        public double getHalfWidth() {
+            return (high - low) / 2.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.4f [%.4f, %.4f]", estimate, low, high);
+        }
+    }
+
+    /** How a study ended and what it found. */
+    public static final class Report {
+        private final Outcome outcome;
+        private final int games;
+        private final int looks;
+        private final BatchResult result;
+        private final BatchResult secondResult;
+        private final Interval[] winRates;
+        private final Interval turns;
+        private final Interval difference;
+
+        Report(Outcome outcome, int games, int looks, BatchResult result, BatchResult secondResult,
+                Interval[] winRates, Interval turns, Interval difference) {
+            this.outcome = outcome;
+            this.games = games;
+            this.looks = looks;
+            this.result = result;
+            this.secondResult = secondResult;
+            this.winRates = winRates;
+            this.turns = turns;
+            this.difference = difference;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        /** Games played per configuration. */
+        public int getGames() {
+            return games;
+        }
+
+        /** Number of times the stopping rule was checked. */
+        public int getLooks() {
+            return looks;
+        }
+
+        /** Results of the (first) configuration. */
+        public BatchResult getResult() {
+            return result;
+        }
+
+        /** Results of the second configuration, or null for an estimate. */
+        public BatchResult getSecondResult() {
+            return secondResult;
+        }
+
+        /** Win rate interval of the seat (estimate only). */
+        public Interval getWinRate(int seat) {
+            return winRates[seat];
+        }
+
+        /** Mean game length interval in turns (estimate only). */
+        public Interval getTurns() {
+            return turns;
+        }
+
+        /** Mean per-game difference of the metric, first minus second (compare only). */
+        public Interval getDifference() {
+            return difference;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(outcome).append(" after ").append(games).append(" games per configuration (")
+                .append(looks).append(looks == 1 ? " look" : " looks").append(")\n");
+            if (winRates != null) {
+                for (int seat = 0; seat < winRates.length; seat++) {
+                    sb.append("  Seat ").append(seat).append(" win rate: ").append(winRates[seat]).append('\n');
+                }
+                sb.append("  Mean turns per game: ").append(turns);
+            } else {
+                sb.append("  Difference (first - second): ").append(difference);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package Assignment1;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Long-running simulation service on a local HTTP port, so repeated studies
+ * reuse one warm JVM instead of paying start-up and JIT warm-up every run.
+ *
+ * Every job runs on one shared ForkJoinPool with a worker per core, so jobs
+ * submitted by several users at once share the machine through work
+ * stealing; the most recently used generated maps are kept for reuse. Endpoints:
+ * <pre>
+ * GET /simulate?games=1000&amp;seed=42[&amp;rounds=8192][&amp;radius=8&amp;mapSeed=1][&amp;agents=4 | &amp;start=0,15,28,43]
+ * GET /metrics
+ * </pre>
+ * Without radius a job plays the standard map; start gives one starting node
+ * per agent, agents spreads that many agents automatically. /simulate streams
+ * one line per game as soon as it finishes (completion order):
+ * <pre>game &lt;index&gt; seed &lt;seed&gt; winner &lt;seat or -&gt; rounds &lt;n&gt; turns &lt;n&gt; vps &lt;v0,v1,...&gt;</pre>
+ * followed by the batch summary. Workers hand the lines to a small queue per
+ * job and the job's request thread writes them out, so a slow client never
+ * holds up a worker for long; a client that disconnects cancels the rest of
+ * its job. Jobs above the configured games, rounds or map radius limits are
+ * rejected. The server only listens on the loopback interface.
+ */
+public class SimulationServer {
+
+    public static final int DEFAULT_PORT = 8025;
+
+    private static final int DEFAULT_ROUNDS = 8192;
+
+    public static final int DEFAULT_MAX_GAMES = 1_000_000;
+    public static final int DEFAULT_MAX_ROUNDS = 65_536;
+    public static final int DEFAULT_MAX_RADIUS = 32;
+
+    /** Generated maps kept for reuse; the least recently used one goes first. */
+    private static final int CACHED_MAPS = 16;
+
+    /** Result lines a job may have waiting for its client before its workers wait. */
+    private static final int QUEUED_LINES = 4096;
+
+    private final HttpServer http;
+    private final ForkJoinPool workers;
+    private final ExecutorService requestThreads;
+    private final EngineMetrics metrics = new EngineMetrics();
+    /** Recently used generated maps by "radius/mapSeed", in access order. */
+    private final Map<String, BoardTopology> maps = Collections.synchronizedMap(
+        new LinkedHashMap<String, BoardTopology>(CACHED_MAPS, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BoardTopology> eldest) {
+                return size() > CACHED_MAPS;
+            }
+        });
+    private volatile int maxGames = DEFAULT_MAX_GAMES;
+    private volatile int maxRounds = DEFAULT_MAX_ROUNDS;
+    private volatile int maxRadius = DEFAULT_MAX_RADIUS;
+
+    /**
+     * @param port			Local port to listen on (0 for any free port).
+     * @param parallelism	Worker threads shared by all jobs.
+     */
+    public SimulationServer(int port, int parallelism) throws IOException {
+        this.workers = new ForkJoinPool(parallelism);
+        this.requestThreads = Executors.newCachedThreadPool();
+        this.http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        http.setExecutor(requestThreads);
+        http.createContext("/simulate", this::simulate);
+        http.createContext("/metrics", this::metrics);
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    /** Stops accepting requests, waiting up to the given number of seconds for running jobs' responses. */
+    public void stop(int delaySeconds) {
+        http.stop(delaySeconds);
+        requestThreads.shutdown();
+        workers.shutdown();
+    }
+
+    /** The port actually bound (useful with port 0). */
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    /** Largest games, rounds and map radius a single job may ask for; larger requests get a 400. */
+    public void setLimits(int maxGames, int maxRounds, int maxRadius) {
+        if (maxGames < 1 || maxRounds < 1 || maxRadius < 0) throw new IllegalArgumentException("invalid limits");
+        this.maxGames = maxGames;
+        this.maxRounds = maxRounds;
+        this.maxRadius = maxRadius;
+    }
+
+    /** Counters of every game the server has played. */
+    public EngineMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void simulate(HttpExchange exchange) throws IOException {
+        BatchRunner runner;
+        int games;
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            games = Integer.parseInt(require(query, "games"));
+            long seed = Long.parseLong(require(query, "seed"));
+            if (games < 1) throw new IllegalArgumentException("games must be at least 1");
+            if (games > maxGames) throw new IllegalArgumentException("games must be at most " + maxGames);
+            LongFunction<GamePlay> factory = gameFactory(query);
+            factory.apply(seed); // fails on a bad map or placement now, before the response has started
+            runner = new BatchRunner(factory, seed, workers.getParallelism());
+        } catch (IllegalArgumentException e) {
+            sendText(exchange, 400, e.getMessage() + "\n");
+            return;
+        }
+        runner.setMetrics(metrics);
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0); // chunked: lines are sent as games finish
+        ResultStream stream = new ResultStream();
+        runner.setResultListener(stream::offer);
+        ForkJoinTask<BatchResult> job = runner.submit(games, workers);
+        try (Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+            stream.drainTo(out, job);
+            out.append(job.join().toString()).append('\n');
+        } catch (IOException e) {
+            // The client went away: stop playing games nobody will read.
+            runner.cancel();
+            stream.cancel();
+        } catch (InterruptedException e) {
+            runner.cancel();
+            stream.cancel();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        sendText(exchange, 200, metrics + "\n");
+    }
+
+    /** Game factory for a job's map, rounds and seating. */
+    private LongFunction<GamePlay> gameFactory(Map<String, String> query) {
+        int rounds = query.containsKey("rounds") ? Integer.parseInt(query.get("rounds")) : Math.min(DEFAULT_ROUNDS, maxRounds);
+        if (rounds < 1) throw new IllegalArgumentException("rounds must be at least 1");
+        if (rounds > maxRounds) throw new IllegalArgumentException("rounds must be at most " + maxRounds);
+        BoardTopology topology;
+        if (query.containsKey("radius")) {
+            int radius = Integer.parseInt(query.get("radius"));
+            if (radius > maxRadius) throw new IllegalArgumentException("radius must be at most " + maxRadius);
+            long mapSeed = query.containsKey("mapSeed") ? Long.parseLong(query.get("mapSeed")) : 0L;
+            topology = generatedMap(radius, mapSeed);
+        } else {
+            topology = MapSetup.standardTopology();
+        }
+        if (query.containsKey("start")) {
+            String[] parts = query.get("start").split(",");
+            int[] startingNodes = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                startingNodes[i] = Integer.parseInt(parts[i].trim());
+            }
+            return seed -> GameFactory.createGame(topology, startingNodes, rounds, seed);
+        }
+        if (query.containsKey("agents")) {
+            int agents = Integer.parseInt(query.get("agents"));
+            if (agents > topology.getNodeCount()) throw new IllegalArgumentException("agents must be at most " + topology.getNodeCount());
+            return seed -> GameFactory.createGame(topology, agents, rounds, seed);
+        }
+        if (topology == MapSetup.standardTopology()) {
+            return seed -> GameFactory.createStandardGame(rounds, seed);
+        }
+        return seed -> GameFactory.createGame(topology, GameFactory.AGENT_NAMES.length, rounds, seed);
+    }
+
+    /** The generated map, from the cache if it was used recently. */
+    private BoardTopology generatedMap(int radius, long mapSeed) {
+        String key = radius + "/" + mapSeed;
+        BoardTopology topology = maps.get(key);
+        if (topology == null) {
+            // Built outside the lock; two jobs racing for the same map build equal copies.
+            topology = HexMapGenerator.generate(radius, mapSeed);
+            maps.put(key, topology);
+        }
+        return topology;
+    }
+
+    private static String require(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) throw new IllegalArgumentException("missing parameter: " + name);
+        return value;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) return query;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Result lines of one job on their way from the workers to the client.
+     * Workers only format a line and queue it; the job's request thread
+     * writes the queue out. While the queue is full a worker waits as a
+     * managed blocker, so the pool can start a spare thread and other jobs
+     * keep their workers.
+     */
+    private static final class ResultStream {
+        private final BlockingQueue<String> lines = new ArrayBlockingQueue<>(QUEUED_LINES);
+        private volatile boolean cancelled;
+
+        void offer(GameResult result, int index) {
+            if (cancelled) return;
+            StringBuilder line = new StringBuilder(64);
+            line.append("game ").append(index).append(" seed ").append(result.getSeed()).append(" winner ");
+            if (result.hasWinner()) line.append(result.getWinnerSeat());
+            else line.append('-');
+            line.append(" rounds ").append(result.getRounds()).append(" turns ").append(result.getTurns()).append(" vps ");
+            for (int seat = 0; seat < result.getSeatCount(); seat++) {
+                if (seat > 0) line.append(',');
+                line.append(result.getVictoryPoints(seat));
+            }
+            line.append('\n');
+            String text = line.toString();
+            if (lines.offer(text)) return;
+            try {
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                    private boolean done;
+
+                    @Override
+                    public boolean block() throws InterruptedException {
+                        while (!done) {
+                            done = cancelled || lines.offer(text, 100, TimeUnit.MILLISECONDS);
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        if (!done) done = cancelled || lines.offer(text);
+                        return done;
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /** Writes lines as they arrive until the job is done and every line is out; flushes whenever the queue runs dry. */
+        void drainTo(Writer out, ForkJoinTask<BatchResult> job) throws IOException, InterruptedException {
+            while (true) {
+                String line = lines.poll(50, TimeUnit.MILLISECONDS);
+                if (line != null) {
+                    out.append(line);
+                    if (lines.isEmpty()) out.flush();
+                } else if (job.isDone() && lines.isEmpty()) {
+                    return;
+                }
+            }
+        }
+
+        /** Drops queued lines and releases any worker waiting for room. */
+        void cancel() {
+            cancelled = true;
+            lines.clear();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package Assignment1;
+
+import java.util.Arrays;
+
+/**
+ * One small bit set per item (e.g. the neighbours of each node), stored as
+ * (word index, bits) pairs for only the words that have a bit set, with all
+ * items packed into shared arrays. Testing an item against a dense bit set
+ * therefore costs one AND per touched word, independent of the set's size.
+ * Immutable once built.
+ */
+final class SparseMasks {
+
+    private final int[] start;
+    private final int[] word;
+    private final long[] bits;
+
+    /** @param members	For each item, the bit indices in its set. */
+    SparseMasks(int[][] members) {
+        start = new int[members.length + 1];
+        int total = 0;
+        for (int[] m : members) total += m.length;
+        int[] words = new int[total];
+        long[] masks = new long[total];
+        int size = 0;
+        for (int item = 0; item < members.length; item++) {
+            start[item] = size;
+            for (int bit : members[item]) {
+                int w = bit >>> 6;
+                int k = start[item];
+                while (k < size && words[k] != w) k++;
+                if (k == size) {
+                    words[size] = w;
+                    masks[size++] = 0;
+                }
+                masks[k] |= 1L << bit;
+            }
+        }
+        start[members.length] = size;
+        word = Arrays.copyOf(words, size);
+        bits = Arrays.copyOf(masks, size);
+    }
+
+    /** True if the item's mask and the dense set share a bit. */
+    boolean intersects(int item, long[] set) {
+        return intersects(item, set, 0);
+    }
+
+    /** As intersects(item, set) for a dense set stored in set from index offset on. */
+    boolean intersects(int item, long[] set, int offset) {
+        for (int k = start[item], end = start[item + 1]; k < end; k++) {
+            if ((set[offset + word[k]] & bits[k]) != 0) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,147 @@
+package Assignment1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Writes the human-readable game log (one line per turn, longest road changes
+ * and a VP summary per round). Lines are collected in a StringBuilder and
+ * written to the target in large chunks instead of one println per line; the
+ * buffer is always flushed when the game ends.
+ */
+public class TextGameListener implements GameListener {
+
+    private static final int DEFAULT_FLUSH_THRESHOLD = 8192;
+
+    private final Appendable out;
+    private final int flushThreshold;
+    private final StringBuilder buffer = new StringBuilder();
+
+    /** Outcome of the current turn; the turn line is written once it is known. */
+    private int roll;
+    private Agent builder;
+    private Node builtNode;
+    private Edge builtEdge;
+    private boolean builtCity;
+    private boolean discarded;
+
+    /**
+     * @param out				Destination of the log, e.g. System.out.
+     * @param flushThreshold	Buffered characters that trigger a write; 0 writes every line.
+     */
+    public TextGameListener(Appendable out, int flushThreshold) {
+        this.out = out;
+        this.flushThreshold = flushThreshold;
+    }
+
+    public TextGameListener(Appendable out) {
+        this(out, DEFAULT_FLUSH_THRESHOLD);
+    }
+
+    @Override
+    public void onGameStart(List<Agent> agents) {
+        buffer.append("Initial VPs: ");
+        appendVictoryPoints(agents);
+        buffer.append(" (settlements placed).");
+        endLine();
+    }
+
+    @Override
+    public void onTurnRolled(int round, Agent agent, int roll) {
+        this.roll = roll;
+        this.builder = null;
+        this.builtNode = null;
+        this.builtEdge = null;
+        this.discarded = false;
+    }
+
+    @Override
+    public void onSettlementBuilt(Agent agent, Node node) {
+        builder = agent;
+        builtNode = node;
+        builtCity = false;
+    }
+
+    @Override
+    public void onCityBuilt(Agent agent, Node node) {
+        builder = agent;
+        builtNode = node;
+        builtCity = true;
+    }
+
+    @Override
+    public void onRoadBuilt(Agent agent, Edge edge) {
+        builder = agent;
+        builtEdge = edge;
+    }
+
+    @Override
+    public void onDiscard(Agent agent, int cards, boolean sevenRolled) {
+        if (!sevenRolled) discarded = true;
+    }
+
+    @Override
+    public void onLongestRoadChanged(Agent previous, Agent holder) {
+        if (previous != null) {
+            buffer.append("  -> ").append(previous.getName()).append(" loses Longest Road (-2 VPs)");
+            endLine();
+        }
+        if (holder != null) {
+            buffer.append("  -> ").append(holder.getName()).append(" gains Longest Road (+2 VPs)");
+            endLine();
+        }
+    }
+
+    @Override
+    public void onTurnEnd(int round, Agent agent) {
+        buffer.append('[').append(round).append(" / ").append(agent.getName()).append("]: ");
+        if (builder == agent && builtEdge != null) {
+            buffer.append("Built Road at edge (").append(builtEdge.getNodes()[0].getNodeNum())
+                .append('-').append(builtEdge.getNodes()[1].getNodeNum()).append(')');
+        } else if (builder == agent && builtNode != null) {
+            buffer.append(builtCity ? "Built City at node " : "Built Settlement at node ").append(builtNode.getNodeNum());
+        } else if (discarded) {
+            buffer.append("Discarded down to 7 (no valid build)");
+        } else {
+            buffer.append("Rolled ").append(roll);
+        }
+        buffer.append(" - ").append(agent.getVictoryPoints()).append(" VPs");
+        endLine();
+    }
+
+    @Override
+    public void onRoundEnd(int round, List<Agent> agents) {
+        buffer.append("--- End of Round ").append(round).append(" --- VPs: ");
+        appendVictoryPoints(agents);
+        endLine();
+    }
+
+    @Override
+    public void onGameOver(Agent winner, int rounds, int turns) {
+        flush();
+    }
+
+    /** Writes everything buffered so far to the target. */
+    public void flush() {
+        if (buffer.length() == 0) return;
+        try {
+            out.append(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.setLength(0);
+    }
+
+    private void appendVictoryPoints(List<Agent> agents) {
+        for (int i = 0; i < agents.size(); i++) {
+            if (i > 0) buffer.append(", ");
+            buffer.append(agents.get(i).getName()).append(' ').append(agents.get(i).getVictoryPoints());
+        }
+    }
+
+    private void endLine() {
+        buffer.append(System.lineSeparator());
+        if (buffer.length() >= flushThreshold) flush();
+    }
+}
@@ -0,0 +1,200 @@
+package Assignment1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ranks build policies against each other with as few games as possible.
+ *
+ * Games are played on the standard map in groups of one game per seat: a
+ * group draws a lineup of policies and plays it once in every rotation, so
+ * each policy in it sits in every seat once and the large first-seat
+ * advantage cancels out. A policy scores 1 for a win; a game that hits the
+ * round limit gives its point to the seats with the most VPs, shared evenly.
+ *
+ * Games are allocated by successive halving: every round plays enough groups
+ * for each remaining policy to take part in about n games, then keeps the
+ * better half by mean score (over all its games so far) and doubles n.
+ * Clearly weaker policies therefore drop out after a handful of games and
+ * most of the games go to the close contests at the top. The whole
+ * tournament is reproducible from its master seed.
+ */
+public class Tournament {
+
+    private final List<BuildPolicy> policies;
+    private final int maxRounds;
+    private final long masterSeed;
+    private final int parallelism;
+    private final int seats = GameFactory.AGENT_NAMES.length;
+    private long gamesPlayed;
+
+    /**
+     * @param policies		The policies to rank (at least two).
+     * @param maxRounds		Round limit of every game.
+     * @param masterSeed	Seed from which every lineup and game is derived.
+     * @param parallelism	Number of worker threads.
+     */
+    public Tournament(List<? extends BuildPolicy> policies, int maxRounds, long masterSeed, int parallelism) {
+        if (policies.size() < 2) throw new IllegalArgumentException("a tournament needs at least two policies");
+        this.policies = new ArrayList<>(policies);
+        this.maxRounds = maxRounds;
+        this.masterSeed = masterSeed;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs rounds until one policy is left.
+     * @param firstRoundGames	Games per policy in the first round (doubled every round).
+     * @return every policy's standing, best first
+     */
+    public List<Standing> run(int firstRoundGames) {
+        if (firstRoundGames < 1) throw new IllegalArgumentException("firstRoundGames must be at least 1");
+        List<Standing> standings = new ArrayList<>();
+        for (BuildPolicy policy : policies) standings.add(new Standing(policy));
+        List<Standing> alive = new ArrayList<>(standings);
+        int gamesPerPolicy = firstRoundGames;
+        for (int round = 1; alive.size() > 1; round++) {
+            playRound(alive, gamesPerPolicy, GameRandom.seedForGame(masterSeed, round));
+            alive.sort(BY_MEAN_SCORE);
+            for (Standing dropped : alive.subList((alive.size() + 1) / 2, alive.size())) {
+                dropped.eliminatedInRound = round;
+            }
+            alive = new ArrayList<>(alive.subList(0, (alive.size() + 1) / 2));
+            gamesPerPolicy *= 2;
+        }
+        standings.sort(Comparator.comparingInt((Standing s) -> s.eliminatedInRound == 0 ? Integer.MAX_VALUE : s.eliminatedInRound)
+            .reversed().thenComparing(BY_MEAN_SCORE));
+        return standings;
+    }
+
+    /** Games played by all rounds so far. */
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * One round: enough rotated groups for every policy to play about
+     * gamesPerPolicy games. The lineups are dealt from shuffled passes over
+     * the remaining policies, and the group count is rounded up to whole
+     * passes, so every policy gets exactly the same number of seats.
+     */
+    private void playRound(List<Standing> alive, int gamesPerPolicy, long roundSeed) {
+        int passUnit = alive.size() / gcd(alive.size(), seats);
+        int groups = (alive.size() * gamesPerPolicy + seats * seats - 1) / (seats * seats);
+        groups = (groups + passUnit - 1) / passUnit * passUnit;
+        Standing[][] lineups = dealLineups(alive, groups, new GameRandom(roundSeed));
+        int games = groups * seats;
+        GameResult[] results = new GameResult[games];
+        BatchRunner runner = new BatchRunner((index, seed) -> {
+            GamePlay game = GameFactory.createStandardGame(maxRounds, seed);
+            Standing[] lineup = lineups[index / seats];
+            List<Agent> agents = game.getAgents();
+            for (int seat = 0; seat < seats; seat++) {
+                agents.get(seat).setBuildPolicy(lineup[(seat + index) % seats].policy);
+            }
+            return game;
+        }, roundSeed, parallelism);
+        runner.setResultListener((result, index) -> results[index] = result);
+        runner.run(games);
+        gamesPlayed += games;
+
+        // Tallied in game order so the scores do not depend on scheduling.
+        for (int index = 0; index < games; index++) {
+            Standing[] lineup = lineups[index / seats];
+            double[] scores = scores(results[index]);
+            for (int seat = 0; seat < seats; seat++) {
+                Standing standing = lineup[(seat + index) % seats];
+                standing.games++;
+                standing.score += scores[seat];
+            }
+        }
+    }
+
+    /** Lineups dealt from consecutive passes over the policies, each pass in a fresh random order. */
+    private Standing[][] dealLineups(List<Standing> alive, int groups, GameRandom random) {
+        Standing[][] lineups = new Standing[groups][seats];
+        List<Standing> pass = new ArrayList<>(alive);
+        int dealt = pass.size();
+        for (int group = 0; group < groups; group++) {
+            for (int seat = 0; seat < seats; seat++) {
+                if (dealt == pass.size()) {
+                    for (int i = pass.size() - 1; i > 0; i--) {
+                        Collections.swap(pass, i, random.nextInt(i + 1));
+                    }
+                    dealt = 0;
+                }
+                lineups[group][seat] = pass.get(dealt++);
+            }
+        }
+        return lineups;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /** Each seat's share of the game's point. */
+    private double[] scores(GameResult result) {
+        double[] scores = new double[seats];
+        if (result.hasWinner()) {
+            scores[result.getWinnerSeat()] = 1.0;
+            return scores;
+        }
+        int best = 0;
+        int leaders = 0;
+        for (int seat = 0; seat < seats; seat++) {
+            int vps = result.getVictoryPoints(seat);
+            if (vps > best) {
+                best = vps;
+                leaders = 0;
+            }
+            if (vps == best) leaders++;
+        }
+        for (int seat = 0; seat < seats; seat++) {
+            if (result.getVictoryPoints(seat) == best) scores[seat] = 1.0 / leaders;
+        }
+        return scores;
+    }
+
+    /** Higher mean score first; the sorts are stable, so ties keep their current order. */
+    private static final Comparator<Standing> BY_MEAN_SCORE = Comparator.comparingDouble(Standing::getMeanScore).reversed();
+
+    /** A policy's results over every round it took part in. */
+    public static final class Standing {
+        private final BuildPolicy policy;
+        private long games;
+        private double score;
+        /** Round after which the policy was dropped, 0 for the winner. */
+        private int eliminatedInRound;
+
+        Standing(BuildPolicy policy) {
+            this.policy = policy;
+        }
+
+        public BuildPolicy getPolicy() {
+            return policy;
+        }
+
+        /** Seats the policy played (a game counts more than once if the policy held several seats). */
+        public long getGames() {
+            return games;
+        }
+
+        public double getMeanScore() {
+            return games == 0 ? 0.0 : score / games;
+        }
+
+        /** Round after which the policy was dropped, or 0 if it won the tournament. */
+        public int getEliminatedInRound() {
+            return eliminatedInRound;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-18s games %6d  mean score %.3f  %s", policy, games, getMeanScore(),
+                eliminatedInRound == 0 ? "winner" : "out after round " + eliminatedInRound);
+        }
+    }
+}
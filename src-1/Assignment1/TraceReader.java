@@ -0,0 +1,102 @@
+package Assignment1;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the games of a trace file written by {@link TraceWriter} one at a
+ * time, through a buffer refilled from the channel in large reads.
+ */
+public class TraceReader implements Closeable {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TraceWriter.BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private boolean endOfChannel;
+    private final int nodeCount;
+    private final int edgeCount;
+    private final int seats;
+
+    public TraceReader(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /** Reads and checks the file header. */
+    public TraceReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.limit(0);
+        require(4);
+        if (buffer.getInt() != TraceWriter.MAGIC) throw new IOException("not a trace file (or unsupported version)");
+        this.nodeCount = (int) getVarLong();
+        this.edgeCount = (int) getVarLong();
+        this.seats = (int) getVarLong();
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    /** The next game, or null at the end of the file. */
+    public TraceRecord next() throws IOException {
+        if (!fill(1)) return null;
+        require(8);
+        long gameId = buffer.getLong();
+        int turns = (int) getVarLong();
+        int length = (int) getVarLong();
+        byte[] body = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            require(1);
+            int chunk = Math.min(buffer.remaining(), length - offset);
+            buffer.get(body, offset, chunk);
+            offset += chunk;
+        }
+        require(4);
+        return new TraceRecord(gameId, turns, body, buffer.getInt());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long getVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IOException("malformed varint in trace");
+    }
+
+    private void require(int bytes) throws IOException {
+        if (!fill(bytes)) throw new EOFException("trace file ends inside a record");
+    }
+
+    /** Makes at least the given number of bytes available; false if the file ends first. */
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return true;
+        buffer.compact();
+        while (buffer.position() < bytes && !endOfChannel) {
+            if (channel.read(buffer) < 0) endOfChannel = true;
+        }
+        buffer.flip();
+        return buffer.remaining() >= bytes;
+    }
+}
@@ -0,0 +1,40 @@
+package Assignment1;
+
+/**
+ * One game of a trace file: the bit-packed decisions of every turn plus the
+ * checksum of the position the game ended in. See {@link TraceWriter} for the
+ * format.
+ */
+public final class TraceRecord {
+
+    private final long gameId;
+    private final int turns;
+    private final byte[] body;
+    private final int checksum;
+
+    TraceRecord(long gameId, int turns, byte[] body, int checksum) {
+        this.gameId = gameId;
+        this.turns = turns;
+        this.body = body;
+        this.checksum = checksum;
+    }
+
+    /** Caller-chosen game label, e.g. the seed the game was played with. */
+    public long getGameId() {
+        return gameId;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    /** Packed turn decisions (do not modify). */
+    byte[] getBody() {
+        return body;
+    }
+
+    /** GameSnapshot.stateChecksum of the final position. */
+    public int getChecksum() {
+        return checksum;
+    }
+}
@@ -0,0 +1,96 @@
+package Assignment1;
+
+import java.util.Arrays;
+
+/**
+ * Listener that records one game's random decisions (dice totals, build
+ * targets and discarded cards) as a packed bit stream and appends it to a
+ * {@link TraceWriter} when the game ends. Recording costs a few shifts per
+ * event; the stream grows by doubling, so a long game reallocates it only a
+ * handful of times.
+ */
+public class TraceRecorder implements GameListener {
+
+    private final GamePlay game;
+    private final TraceWriter writer;
+    private final long gameId;
+    private final int nodeBits;
+    private final int edgeBits;
+
+    private byte[] body = new byte[4096];
+    private int length;
+    /** Bits not yet written to body, lowest first. */
+    private long pending;
+    private int pendingBits;
+    private int turns;
+
+    /**
+     * Records the game and installs itself as its listener. Must be created
+     * before the game plays its first turn.
+     * @param gameId	Label stored with the game, e.g. its seed.
+     */
+    public TraceRecorder(GamePlay game, long gameId, TraceWriter writer) {
+        if (game.getTurnNumber() != 0) throw new IllegalStateException("a trace must start at the first turn");
+        writer.checkGame(game);
+        this.game = game;
+        this.writer = writer;
+        this.gameId = gameId;
+        this.nodeBits = TraceWriter.bitsFor(game.getBoard().getNodes().size());
+        this.edgeBits = TraceWriter.bitsFor(game.getBoard().getEdges().size());
+        game.setListener(this);
+    }
+
+    @Override
+    public void onTurnRolled(int round, Agent agent, int roll) {
+        turns++;
+        writeBits(roll, TraceWriter.ROLL_BITS);
+    }
+
+    @Override
+    public void onSettlementBuilt(Agent agent, Node node) {
+        writeBits(TraceWriter.ACTION_SETTLEMENT, TraceWriter.ACTION_BITS);
+        writeBits(node.getNodeNum(), nodeBits);
+    }
+
+    @Override
+    public void onCityBuilt(Agent agent, Node node) {
+        writeBits(TraceWriter.ACTION_CITY, TraceWriter.ACTION_BITS);
+        writeBits(node.getNodeNum(), nodeBits);
+    }
+
+    @Override
+    public void onRoadBuilt(Agent agent, Edge edge) {
+        writeBits(TraceWriter.ACTION_ROAD, TraceWriter.ACTION_BITS);
+        writeBits(edge.getEdgeNum(), edgeBits);
+    }
+
+    @Override
+    public void onDiscard(Agent agent, int cards, boolean sevenRolled) {
+        // Seven-roll discards are implied by the roll; only the failed build needs its action code.
+        if (!sevenRolled) writeBits(TraceWriter.ACTION_DISCARD, TraceWriter.ACTION_BITS);
+    }
+
+    @Override
+    public void onCardDiscarded(Agent agent, Resources resource) {
+        writeBits(resource.ordinal(), TraceWriter.RESOURCE_BITS);
+    }
+
+    @Override
+    public void onGameOver(Agent winner, int rounds, int turns) {
+        if (pendingBits > 0) {
+            writeBits(0, 8 - pendingBits);
+        }
+        writer.write(gameId, this.turns, body, length, GameSnapshot.stateChecksum(game));
+    }
+
+    private void writeBits(int value, int bits) {
+        pending |= (long) value << pendingBits;
+        pendingBits += bits;
+        while (pendingBits >= 8) {
+            if (length == body.length) body = Arrays.copyOf(body, length * 2);
+            body[length++] = (byte) pending;
+            pending >>>= 8;
+            pendingBits -= 8;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package Assignment1;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Re-executes recorded games on the standard map without drawing a single
+ * random number and without any listener: the dice totals, build targets and
+ * discarded cards come from the trace, and everything else follows from the
+ * rules exactly as in {@link GamePlay#executeTurn}. Every recorded decision is
+ * checked for legality as it is applied, and the final position must match
+ * the recorded checksum.
+ */
+public final class TraceReplayer {
+
+    private static final Resources[] RESOURCES = Resources.values();
+
+    private TraceReplayer() {
+    }
+
+    /**
+     * Replays every game in the file.
+     * @return the number of games verified
+     * @throws IllegalStateException at the first game that does not replay to its recorded position
+     */
+    public static int replayAll(TraceReader reader) throws IOException {
+        BoardTopology topology = MapSetup.standardTopology();
+        if (reader.getNodeCount() != topology.getNodeCount() || reader.getEdgeCount() != topology.getEdgeCount()
+                || reader.getSeats() != GameFactory.AGENT_NAMES.length) {
+            throw new IllegalStateException("trace was not recorded on the standard game");
+        }
+        int games = 0;
+        for (TraceRecord record = reader.next(); record != null; record = reader.next()) {
+            replay(record);
+            games++;
+        }
+        return games;
+    }
+
+    /**
+     * Replays one game of the standard configuration (GameFactory) from its trace.
+     * @return the game in its final position
+     * @throws IllegalStateException if a decision is illegal or the final position differs
+     */
+    public static GamePlay replay(TraceRecord record) {
+        // The game's random source is never drawn from: replay only calls the deterministic steps.
+        GamePlay game = GameFactory.createStandardGame(Integer.MAX_VALUE, 0L);
+        Board board = game.getBoard();
+        BuildCandidates candidates = game.getCandidates();
+        List<Agent> agents = game.getAgents();
+        int nodeBits = TraceWriter.bitsFor(board.getNodes().size());
+        int edgeBits = TraceWriter.bitsFor(board.getEdges().size());
+        BitReader in = new BitReader(record);
+
+        for (int turn = 0; turn < record.getTurns(); turn++) {
+            Agent agent = game.beginTurn();
+            int seat = agents.indexOf(agent);
+            int roll = in.read(TraceWriter.ROLL_BITS);
+            if (roll < 2 || roll > BoardTopology.MAX_ROLL) throw diverged(record, game, "impossible roll " + roll);
+            if (roll != 7) {
+                game.distributeResources(roll);
+            } else {
+                for (Agent a : agents) {
+                    int discardCount = a.getHandSize() > 7 ? a.getHandSize() / 2 : 0;
+                    for (int i = 0; i < discardCount; i++) discard(game, a, in, record);
+                }
+            }
+            if (agent.getHandSize() <= 7) {
+                game.endTurn(agent);
+                continue;
+            }
+            int action = in.read(TraceWriter.ACTION_BITS);
+            if (action == TraceWriter.ACTION_DISCARD) {
+                if (canBuild(candidates, agent, seat)) throw diverged(record, game, "discard although a build was possible");
+                while (agent.getHandSize() > 7) discard(game, agent, in, record);
+            } else if (action == TraceWriter.ACTION_SETTLEMENT) {
+                int node = in.read(nodeBits);
+                if (!agent.canAffordSettlement() || node >= board.getNodes().size() || !candidates.isSettlementNode(node)) {
+                    throw diverged(record, game, "illegal settlement at node " + node);
+                }
+                game.buildSettlement(agent, board.getNode(node));
+            } else if (action == TraceWriter.ACTION_CITY) {
+                int node = in.read(nodeBits);
+                if (!agent.canAffordCity() || node >= board.getNodes().size() || !candidates.isCityNode(seat, node)) {
+                    throw diverged(record, game, "illegal city at node " + node);
+                }
+                game.buildCity(agent, board.getNode(node));
+            } else {
+                int edge = in.read(edgeBits);
+                if (!agent.canAffordRoad() || edge >= board.getEdges().size() || !candidates.isRoadEdge(seat, edge)) {
+                    throw diverged(record, game, "illegal road at edge " + edge);
+                }
+                game.buildRoad(agent, board.getEdge(edge));
+            }
+            game.endTurn(agent);
+        }
+        if (!in.atEnd()) throw diverged(record, game, "unused trace data after the last turn");
+        if (GameSnapshot.stateChecksum(game) != record.getChecksum()) {
+            throw diverged(record, game, "final position does not match the recorded checksum");
+        }
+        return game;
+    }
+
+    private static void discard(GamePlay game, Agent agent, BitReader in, TraceRecord record) {
+        int type = in.read(TraceWriter.RESOURCE_BITS);
+        if (type >= RESOURCES.length || agent.getHandCount(type) == 0) {
+            throw diverged(record, game, agent.getName() + " discards a card it does not hold");
+        }
+        game.discardCard(agent, RESOURCES[type]);
+    }
+
+    /** Same test as GamePlay.performRandomBuildAction: is any affordable legal build available? */
+    private static boolean canBuild(BuildCandidates candidates, Agent agent, int seat) {
+        return (agent.canAffordSettlement() && candidates.getSettlementCount() > 0)
+            || (agent.canAffordCity() && candidates.getCityCount(seat) > 0)
+            || (agent.canAffordRoad() && candidates.getRoadCount(seat) > 0);
+    }
+
+    private static IllegalStateException diverged(TraceRecord record, GamePlay game, String reason) {
+        return new IllegalStateException("trace of game " + record.getGameId() + " diverges at turn "
+            + game.getTurnNumber() + ": " + reason);
+    }
+
+    /** Reads the body of a record least significant bit first, as TraceRecorder wrote it. */
+    private static final class BitReader {
+        private final byte[] body;
+        private int position;
+        private long pending;
+        private int pendingBits;
+        private final TraceRecord record;
+
+        BitReader(TraceRecord record) {
+            this.record = record;
+            this.body = record.getBody();
+        }
+
+        int read(int bits) {
+            while (pendingBits < bits) {
+                if (position == body.length) {
+                    throw new IllegalStateException("trace of game " + record.getGameId() + " ends early");
+                }
+                pending |= (long) (body[position++] & 0xFF) << pendingBits;
+                pendingBits += 8;
+            }
+            int value = (int) (pending & ((1L << bits) - 1));
+            pending >>>= bits;
+            pendingBits -= bits;
+            return value;
+        }
+
+        /** True once only the zero padding of the last byte is left. */
+        boolean atEnd() {
+            return position == body.length && pendingBits < 8 && pending == 0;
+        }
+    }
+}
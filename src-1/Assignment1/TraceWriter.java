@@ -0,0 +1,143 @@
+package Assignment1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends recorded games to a trace file through one direct buffer that is
+ * written to the channel only when full, so games recorded on many threads
+ * share a file without a system call per game.
+ *
+ * A trace stores only what was decided at random; everything the rules
+ * derive (production, who must discard and how many cards, Longest Road) is
+ * recomputed by {@link TraceReplayer}. File layout (little-endian):
+ * <pre>
+ * int magic/version, varint nodes, varint edges, varint seats
+ * per game: long game id, varint turns, varint body bytes, body, int state checksum
+ * </pre>
+ * The body is a bit stream (least significant bit first), per turn:
+ * <pre>
+ * 4 bits      dice total
+ * if seven:   for every seat in order holding more than 7 cards, one
+ *             resource ordinal (3 bits) per card discarded
+ * if the active agent then holds more than 7 cards: a 2-bit action, then
+ *   settlement/city: node ID, road: edge ID (as few bits as the map needs),
+ *   discard: one resource ordinal per card discarded down to 7
+ * </pre>
+ * The roll bits alone are 16 KB for an 8192-round game; with the discards
+ * that follow most turns a turn averages about 11 bits, so a full
+ * four-agent game takes about 45 KB.
+ */
+public class TraceWriter implements Closeable {
+
+    static final int MAGIC = 0x43545201; // "CTR" + format version 1
+    static final int BUFFER_BYTES = 1 << 16;
+
+    static final int ROLL_BITS = 4;
+    static final int ACTION_BITS = 2;
+    static final int ACTION_DISCARD = 0;
+    static final int ACTION_SETTLEMENT = 1;
+    static final int ACTION_CITY = 2;
+    static final int ACTION_ROAD = 3;
+    static final int RESOURCE_BITS = bitsFor(Agent.handTypes());
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final int nodeCount;
+    private final int edgeCount;
+    private final int seats;
+
+    /**
+     * Creates (or truncates) the file and writes the header.
+     * @param topology	Map the recorded games are played on.
+     * @param seats		Number of agents per game.
+     */
+    public TraceWriter(Path file, BoardTopology topology, int seats) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE), topology, seats);
+    }
+
+    public TraceWriter(WritableByteChannel channel, BoardTopology topology, int seats) {
+        this.channel = channel;
+        this.nodeCount = topology.getNodeCount();
+        this.edgeCount = topology.getEdgeCount();
+        this.seats = seats;
+        buffer.putInt(MAGIC);
+        putVarLong(buffer, nodeCount);
+        putVarLong(buffer, edgeCount);
+        putVarLong(buffer, seats);
+    }
+
+    /** Bits needed to store any value in [0, count). */
+    static int bitsFor(int count) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(count - 1));
+    }
+
+    /** Throws unless games of this shape can be stored in this file. */
+    void checkGame(GamePlay game) {
+        Board board = game.getBoard();
+        if (board.getNodes().size() != nodeCount || board.getEdges().size() != edgeCount
+                || game.getAgents().size() != seats) {
+            throw new IllegalArgumentException("game does not match the trace file's map and seats");
+        }
+    }
+
+    /** Appends one finished game; safe to call from any thread. */
+    synchronized void write(long gameId, int turns, byte[] body, int bodyLength, int checksum) {
+        try {
+            if (buffer.remaining() < 8 + 5 + 5 + 4) drain();
+            buffer.putLong(gameId);
+            putVarLong(buffer, turns);
+            putVarLong(buffer, bodyLength);
+            int offset = 0;
+            while (offset < bodyLength) {
+                if (!buffer.hasRemaining()) drain();
+                int chunk = Math.min(buffer.remaining(), bodyLength - offset);
+                buffer.put(body, offset, chunk);
+                offset += chunk;
+            }
+            if (buffer.remaining() < 4) drain();
+            buffer.putInt(checksum);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Writes everything buffered so far to the channel. */
+    public synchronized void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** Unsigned LEB128: 7 bits per byte, high bit set on all but the last. */
+    static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+}
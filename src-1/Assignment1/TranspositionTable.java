@@ -0,0 +1,133 @@
+package Assignment1;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Fixed-size cache of evaluated positions keyed by their Zobrist hash
+ * ({@link GamePlay#getHash()}), shared by any number of threads without
+ * locks.
+ *
+ * Each entry is two longs: the data (a 32-bit value, a 16-bit weight such
+ * as the number of playouts behind the value, the generation it was stored
+ * in and a bit marking the slot as used) and the hash XOR the data. A
+ * reader accepts an entry only if the two XOR back to its hash, so an entry
+ * torn by two threads writing at once simply reads as a miss (lockless
+ * hashing).
+ *
+ * Entries sit in buckets of two. A new position replaces the first slot if
+ * that slot holds no more weight than the newcomer, counting the slot's
+ * weight as halved for every generation since it was stored, and the
+ * second slot otherwise. Heavily searched positions thus survive many
+ * lighter ones and only age out over several generations, while the second
+ * slot always takes the newest ones.
+ */
+public final class TranspositionTable {
+
+    /** Returned by probe when the position is not in the table. */
+    public static final long NOT_FOUND = 0L;
+
+    private static final int MAX_WEIGHT = 0xFFFF;
+    private static final int GENERATION_MASK = 0x7FFF;
+    /** Generations after which any stored weight has halved to nothing. */
+    private static final int MAX_AGE = 16;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /** For entry i: keys[i] = hash ^ data[i]. */
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private volatile int generation;
+
+    /**
+     * @param megabytes	Memory for the entries (16 bytes each), rounded down to a power of two entries.
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > 16384) throw new IllegalArgumentException("size must be 1 to 16384 MB");
+        int entries = Integer.highestOneBit((int) Math.min((long) megabytes << 16, 1L << 30));
+        this.keys = new long[entries];
+        this.data = new long[entries];
+        this.mask = entries - 1;
+    }
+
+    /** Number of entries the table holds. */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Starts a new generation (e.g. a new search or game): entries stored
+     * before it are replaced first.
+     */
+    public void newGeneration() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Looks a position up.
+     * @return the stored data (read it with value() and weight()), or NOT_FOUND
+     */
+    public long probe(long hash) {
+        int bucket = index(hash);
+        for (int i = bucket; i < bucket + 2; i++) {
+            long d = (long) SLOT.getOpaque(data, i);
+            long k = (long) SLOT.getOpaque(keys, i);
+            if ((k ^ d) == hash && d != NOT_FOUND) return d;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Stores a value for a position, replacing its previous entry.
+     * @param weight	How much the value is worth keeping (e.g. playouts); capped at 65535.
+     */
+    public void store(long hash, int value, int weight) {
+        int gen = generation;
+        long d = ((long) value << 32) | ((long) Math.min(Math.max(weight, 0), MAX_WEIGHT) << 16) | ((long) gen << 1) | 1L;
+        int bucket = index(hash);
+        int target = bucket + 1;
+        long first = (long) SLOT.getOpaque(data, bucket);
+        long firstKey = (long) SLOT.getOpaque(keys, bucket);
+        long second = (long) SLOT.getOpaque(data, bucket + 1);
+        long secondKey = (long) SLOT.getOpaque(keys, bucket + 1);
+        if ((secondKey ^ second) == hash) {
+            target = bucket + 1;
+        } else if ((firstKey ^ first) == hash || first == NOT_FOUND || agedWeight(first, gen) <= weight(d)) {
+            target = bucket;
+        }
+        SLOT.setOpaque(data, target, d);
+        SLOT.setOpaque(keys, target, hash ^ d);
+    }
+
+    /** Empties the table. Must not run while other threads use it. */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+
+    /** Value of data returned by probe. */
+    public static int value(long data) {
+        return (int) (data >>> 32);
+    }
+
+    /** Weight of data returned by probe. */
+    public static int weight(long data) {
+        return (int) (data >>> 16) & MAX_WEIGHT;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 1) & GENERATION_MASK;
+    }
+
+    /** Weight of the entry halved once per generation between its store and gen. */
+    private static int agedWeight(long data, int gen) {
+        int age = (gen - generation(data)) & GENERATION_MASK;
+        return age >= MAX_AGE ? 0 : weight(data) >>> age;
+    }
+
+    /** First slot of the hash's bucket. */
+    private int index(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask & ~1;
+    }
+}
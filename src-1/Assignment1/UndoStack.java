@@ -0,0 +1,87 @@
+package Assignment1;
+
+import java.util.Arrays;
+
+/**
+ * The changes made to a game since it started recording, newest last, so
+ * that {@link GamePlay#undoTo(int)} can take them back exactly. Each change
+ * is packed into a single long (two for a saved random state):
+ * <pre>
+ * bits 0-3   kind
+ * bits 4-15  seat + 1 (0 for none)
+ * bits 16-47 node, edge, roll or resource ordinal
+ * bits 48-63 extra (the seat's previous longest road for ROAD)
+ * </pre>
+ * Pushing only writes into a long array that grows by doubling, so a search
+ * that keeps making and unmaking moves allocates nothing once the stack has
+ * reached its deepest line.
+ */
+final class UndoStack {
+
+    /** A turn was started (turn and round counters advanced). */
+    static final int TURN = 0;
+    /** The roll in the id field paid out from the production table. */
+    static final int ROLL = 1;
+    /** The seat discarded one card of the resource in the id field. */
+    static final int DISCARD = 2;
+    static final int SETTLEMENT = 3;
+    static final int CITY = 4;
+    static final int ROAD = 5;
+    /** Longest Road moved from seat (-1 none) to id (-1 none). */
+    static final int LONGEST_ROAD = 6;
+    /** The random state, held in the long below this one, as it was at a mark. */
+    static final int RANDOM = 7;
+
+    private static final int SEAT_SHIFT = 4;
+    private static final int ID_SHIFT = 16;
+    private static final int EXTRA_SHIFT = 48;
+    private static final int MAX_SEAT = 0xFFE;
+    private static final int MAX_EXTRA = 0xFFFF;
+
+    private long[] entries = new long[256];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /** Records one change; seat and id may be -1, extra must fit in 16 bits. */
+    void push(int kind, int seat, int id, int extra) {
+        if (seat > MAX_SEAT || extra < 0 || extra > MAX_EXTRA) throw new IllegalArgumentException("change does not fit an undo entry");
+        if (size == entries.length) entries = Arrays.copyOf(entries, size * 2);
+        entries[size++] = kind | ((long) (seat + 1) << SEAT_SHIFT) | ((id & 0xFFFFFFFFL) << ID_SHIFT)
+            | ((long) extra << EXTRA_SHIFT);
+    }
+
+    /** Records a random state; restoring it undoes every draw made after it. */
+    void pushRandom(long state) {
+        if (size + 2 > entries.length) entries = Arrays.copyOf(entries, entries.length * 2);
+        entries[size++] = state;
+        entries[size++] = RANDOM;
+    }
+
+    /** Removes and returns the newest entry. */
+    long pop() {
+        return entries[--size];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    static int kind(long entry) {
+        return (int) (entry & 0xF);
+    }
+
+    static int seat(long entry) {
+        return (int) (entry >>> SEAT_SHIFT & 0xFFF) - 1;
+    }
+
+    static int id(long entry) {
+        return (int) (entry >>> ID_SHIFT);
+    }
+
+    static int extra(long entry) {
+        return (int) (entry >>> EXTRA_SHIFT);
+    }
+}
@@ -0,0 +1,61 @@
+package Assignment1;
+
+/**
+ * Zobrist keys for hashing game positions: every piece of state (a building
+ * of a seat on a node, a road of a seat on an edge, a seat holding n cards
+ * of a resource, the seat to move, the Longest Road holder) has a
+ * pseudo-random 64-bit key, and a position's hash is the XOR of the keys of
+ * everything in it. Placing or removing a piece therefore updates the hash
+ * with one XOR. Keys are computed on demand from SplitMix64 instead of being
+ * stored, so they cost no memory, work for any map size or seat count, and
+ * are the same in every game: equal positions in different games (or forks)
+ * hash equally.
+ */
+final class Zobrist {
+
+    private static final long SEAT = 0x5A6F627269737431L;
+    private static final long SETTLEMENT = 0x2545F4914F6CDD1DL;
+    private static final long CITY = 0x6A09E667F3BCC909L;
+    private static final long ROAD = 0x3C6EF372FE94F82BL;
+    private static final long HAND = 0x510E527FADE682D1L;
+    private static final long TO_MOVE = 0x1F83D9ABFB41BD6BL;
+    private static final long LONGEST_ROAD = 0x5BE0CD19137E2179L;
+
+    private Zobrist() {
+    }
+
+    /** Base key of a seat, from which its piece keys are derived. */
+    static long seat(int seat) {
+        return GameRandom.seedForGame(SEAT, seat);
+    }
+
+    static long settlement(long seatKey, int nodeNum) {
+        return GameRandom.seedForGame(seatKey ^ SETTLEMENT, nodeNum);
+    }
+
+    static long city(long seatKey, int nodeNum) {
+        return GameRandom.seedForGame(seatKey ^ CITY, nodeNum);
+    }
+
+    static long road(long seatKey, int edgeNum) {
+        return GameRandom.seedForGame(seatKey ^ ROAD, edgeNum);
+    }
+
+    /** Base of the keys of a seat's cards of one resource (see hand). */
+    static long handBase(long seatKey, int ordinal) {
+        return GameRandom.seedForGame(seatKey ^ HAND, ordinal);
+    }
+
+    /** Key of holding count cards of the resource with this base; 0 for no cards. */
+    static long hand(long handBase, int count) {
+        return count == 0 ? 0L : GameRandom.mix64(handBase + count);
+    }
+
+    static long toMove(int seat) {
+        return GameRandom.seedForGame(TO_MOVE, seat);
+    }
+
+    static long longestRoad(int seat) {
+        return GameRandom.seedForGame(LONGEST_ROAD, seat);
+    }
+}